@@ -22,6 +22,10 @@ import me.ampayne2.ultimategames.api.PointManager;
 import me.ampayne2.ultimategames.arenas.Arena;
 import me.ampayne2.ultimategames.arenas.ArenaListener;
 import me.ampayne2.ultimategames.arenas.ArenaManager;
+import me.ampayne2.ultimategames.arenas.instances.InstanceManager;
+import me.ampayne2.ultimategames.arenas.rollback.RollbackManager;
+import me.ampayne2.ultimategames.arenas.worlds.ArenaWorldManager;
+import me.ampayne2.ultimategames.arenas.worlds.ChunkResidencyManager;
 import me.ampayne2.ultimategames.arenas.countdowns.CountdownManager;
 import me.ampayne2.ultimategames.arenas.scoreboards.ScoreboardManager;
 import me.ampayne2.ultimategames.arenas.spawnpoints.SpawnpointManager;
@@ -37,7 +41,11 @@ import me.ampayne2.ultimategames.misc.MetricsManager;
 import me.ampayne2.ultimategames.misc.PlayerHeadListener;
 import me.ampayne2.ultimategames.players.LobbyManager;
 import me.ampayne2.ultimategames.players.PlayerManager;
+import me.ampayne2.ultimategames.players.PlayerPositionManager;
+import me.ampayne2.ultimategames.players.Matchmaker;
 import me.ampayne2.ultimategames.players.QueueManager;
+import me.ampayne2.ultimategames.players.TeleportScheduler;
+import me.ampayne2.ultimategames.players.ratings.RatingManager;
 import me.ampayne2.ultimategames.players.classes.GameClassManager;
 import me.ampayne2.ultimategames.players.teams.Team;
 import me.ampayne2.ultimategames.players.teams.TeamManager;
@@ -69,12 +77,20 @@ public class UltimateGames extends JavaPlugin {
     private GameManager gameManager;
     private TeamManager teamManager;
     private ArenaManager arenaManager;
+    private RollbackManager rollbackManager;
+    private InstanceManager instanceManager;
+    private ArenaWorldManager arenaWorldManager;
+    private ChunkResidencyManager chunkResidencyManager;
     private UGSignManager ugSignManager;
     private UGChestManager ugChestManager;
     private QueueManager queueManager;
+    private Matchmaker matchmaker;
+    private RatingManager ratingManager;
     private Messenger messenger;
     private SpawnpointManager spawnpointManager;
     private PlayerManager playerManager;
+    private TeleportScheduler teleportScheduler;
+    private PlayerPositionManager playerPositionManager;
     private CountdownManager countdownManager;
     private LobbyManager lobbyManager;
     private ScoreboardManager scoreboardManager;
@@ -127,15 +143,21 @@ public class UltimateGames extends JavaPlugin {
             }
         });
         playerManager = new PlayerManager(this);
+        teleportScheduler = new TeleportScheduler(this);
+        playerPositionManager = new PlayerPositionManager(this);
         metricsManager = new MetricsManager(this);
         gameClassManager = new GameClassManager(this);
         gameItemManager = new GameItemManager();
         gameManager = new GameManager(this);
         queueManager = new QueueManager(this);
+        matchmaker = new Matchmaker(this);
         spawnpointManager = new SpawnpointManager(this);
         scoreboardManager = new ScoreboardManager();
         teamManager = new TeamManager(this);
+        arenaWorldManager = new ArenaWorldManager(this);
         arenaManager = new ArenaManager(this);
+        rollbackManager = new RollbackManager(this);
+        ratingManager = new RatingManager(this);
         metricsManager.addTotalPlayersGraph();
         if (getConfig().getBoolean("enableAPI")) {
             try {
@@ -149,6 +171,8 @@ public class UltimateGames extends JavaPlugin {
             jettyServer.getHandler().addHandler("/general", new GeneralInformationHandler(this));
         }
         ugSignManager = new UGSignManager(this);
+        instanceManager = new InstanceManager(this);
+        chunkResidencyManager = new ChunkResidencyManager(this);
         ugChestManager = new UGChestManager(this);
         countdownManager = new CountdownManager(this);
         lobbyManager = new LobbyManager(this);
@@ -176,6 +200,15 @@ public class UltimateGames extends JavaPlugin {
                 getLogger().log(Level.SEVERE, "An error occured in unloading the Web API", e);
             }
         }
+        instanceManager.stop();
+        rollbackManager.stop();
+        teleportScheduler.stop();
+        matchmaker.stop();
+        arenaWorldManager.stop();
+        chunkResidencyManager.stop();
+        ratingManager.close();
+        playerManager.getLimboJournal().close();
+        configManager.flush();
         instance = null;
     }
 
@@ -199,10 +232,34 @@ public class UltimateGames extends JavaPlugin {
         return arenaManager;
     }
 
+    public RollbackManager getRollbackManager() {
+        return rollbackManager;
+    }
+
+    public InstanceManager getInstanceManager() {
+        return instanceManager;
+    }
+
+    public ArenaWorldManager getArenaWorldManager() {
+        return arenaWorldManager;
+    }
+
+    public ChunkResidencyManager getChunkResidencyManager() {
+        return chunkResidencyManager;
+    }
+
     public PlayerManager getPlayerManager() {
         return playerManager;
     }
 
+    public TeleportScheduler getTeleportScheduler() {
+        return teleportScheduler;
+    }
+
+    public PlayerPositionManager getPlayerPositionManager() {
+        return playerPositionManager;
+    }
+
     public UGSignManager getUGSignManager() {
         return ugSignManager;
     }
@@ -227,6 +284,14 @@ public class UltimateGames extends JavaPlugin {
         return queueManager;
     }
 
+    public Matchmaker getMatchmaker() {
+        return matchmaker;
+    }
+
+    public RatingManager getRatingManager() {
+        return ratingManager;
+    }
+
     public SpawnpointManager getSpawnpointManager() {
         return spawnpointManager;
     }
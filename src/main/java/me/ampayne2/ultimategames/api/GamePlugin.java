@@ -69,7 +69,9 @@ public abstract class GamePlugin implements Listener {
     public abstract boolean stopGame();
 
     /**
-     * Called when an arena is being loaded.
+     * Called when an arena is being loaded.<br>
+     * Arenas in managed arena worlds are loaded while their world is still unloaded, so arena.getRegion().getWorld() may be null here.
+     * The world is loaded and bound before the arena is opened, so world dependent setup belongs in {@link #openArena(Arena)}.
      *
      * @param arena The arena being loaded.
      * @return True if everything went well else false.
@@ -148,6 +150,19 @@ public abstract class GamePlugin implements Listener {
      */
     public abstract boolean addPlayer(Player player, Arena arena);
 
+    /**
+     * Gets where a player joining an arena is teleported to before {@link #addPlayer} is called.<br>
+     * Defaults to the lobby. Games that teleport players to a spawnpoint in addPlayer can return a destination instead to save the second teleport.
+     * If the destination can't be reached the player is teleported to the lobby.
+     *
+     * @param player The player joining.
+     * @param arena  The arena the player is joining.
+     * @return The join destination.
+     */
+    public JoinDestination getJoinDestination(Player player, Arena arena) {
+        return JoinDestination.LOBBY;
+    }
+
     /**
      * Handle player leaving.
      *
@@ -165,6 +180,18 @@ public abstract class GamePlugin implements Listener {
      */
     public abstract boolean addSpectator(Player player, Arena arena);
 
+    /**
+     * Gets where a spectator joining an arena is teleported to before {@link #addSpectator} is called.<br>
+     * Defaults to the lobby. If the destination can't be reached the spectator is teleported to the lobby.
+     *
+     * @param player The spectator joining.
+     * @param arena  The arena the spectator is joining.
+     * @return The join destination.
+     */
+    public JoinDestination getSpectatorJoinDestination(Player player, Arena arena) {
+        return JoinDestination.LOBBY;
+    }
+
     /**
      * Handle spectator leaving.
      *
@@ -0,0 +1,102 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.api;
+
+import org.bukkit.Location;
+
+/**
+ * Where a player or spectator joining an arena is teleported to.<br>
+ * Declared by a game through {@link GamePlugin#getJoinDestination} and {@link GamePlugin#getSpectatorJoinDestination},
+ * so the player is teleported once, straight to their final position, instead of to the lobby and then again by the game.
+ */
+public final class JoinDestination {
+    /**
+     * The lobby. The game is expected to teleport the player itself.
+     */
+    public static final JoinDestination LOBBY = new JoinDestination(Policy.LOBBY, null);
+    /**
+     * A random spawnpoint of the arena. Falls back to a free spawnpoint if the random one is locked to somebody else.
+     */
+    public static final JoinDestination RANDOM_SPAWNPOINT = new JoinDestination(Policy.RANDOM_SPAWNPOINT, null);
+    /**
+     * A random spawnpoint of the arena that nobody is locked to.
+     */
+    public static final JoinDestination FREE_SPAWNPOINT = new JoinDestination(Policy.FREE_SPAWNPOINT, null);
+    /**
+     * The spawnpoint of the arena nobody is locked to that is furthest from the players already in the arena.
+     */
+    public static final JoinDestination SAFEST_SPAWNPOINT = new JoinDestination(Policy.SAFEST_SPAWNPOINT, null);
+    /**
+     * The arena's spectator spawnpoint.
+     */
+    public static final JoinDestination SPECTATOR_SPAWNPOINT = new JoinDestination(Policy.SPECTATOR_SPAWNPOINT, null);
+    private final Policy policy;
+    private final Location location;
+
+    /**
+     * Creates a new JoinDestination.
+     *
+     * @param policy   The policy.
+     * @param location The location. Only used by {@link Policy#LOCATION}.
+     */
+    private JoinDestination(Policy policy, Location location) {
+        this.policy = policy;
+        this.location = location;
+    }
+
+    /**
+     * Creates a JoinDestination of an explicit location.
+     *
+     * @param location The location.
+     * @return The JoinDestination.
+     */
+    public static JoinDestination at(Location location) {
+        return location == null ? LOBBY : new JoinDestination(Policy.LOCATION, location.clone());
+    }
+
+    /**
+     * Gets the policy of the destination.
+     *
+     * @return The policy.
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Gets the location of the destination.
+     *
+     * @return The location. Null unless the policy is {@link Policy#LOCATION}.
+     */
+    public Location getLocation() {
+        return location == null ? null : location.clone();
+    }
+
+    /**
+     * The ways a join destination can be chosen.
+     */
+    public enum Policy {
+        LOBBY,
+        LOCATION,
+        RANDOM_SPAWNPOINT,
+        FREE_SPAWNPOINT,
+        SAFEST_SPAWNPOINT,
+        SPECTATOR_SPAWNPOINT
+    }
+}
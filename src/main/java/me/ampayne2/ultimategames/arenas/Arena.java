@@ -29,11 +29,6 @@ import org.bukkit.Location;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerMoveEvent;
-import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.util.Vector;
 
 import java.util.ArrayList;
@@ -43,7 +38,7 @@ import java.util.List;
  * Represents a UltimateGames Arena.
  * TODO: Make a fancy system to store properties of the arena without a wall of code.
  */
-public class Arena implements Listener {
+public class Arena {
     private final UltimateGames ultimateGames;
     private final Game game;
     private String arenaName;
@@ -63,14 +58,54 @@ public class Arena implements Listener {
     private boolean allowMobSpawning;
     private Region region;
     private int timesPlayed;
+    private boolean template;
+    private int standbyCopies;
+    private final Arena instanceOf;
     private static final int DEFAULT_MIN_PLAYERS = 4;
     private static final int DEFAULT_MAX_PLAYERS = 8;
     private static final String PATH_SEPARATOR = ".";
 
+    /**
+     * Creates a new Arena and saves it to the config.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     * @param game          The game of the arena.
+     * @param arenaName     The name of the arena.
+     * @param corner1       A corner of the arena's region.
+     * @param corner2       The opposite corner of the arena's region.
+     */
     public Arena(UltimateGames ultimateGames, Game game, String arenaName, Location corner1, Location corner2) {
+        this(ultimateGames, game, arenaName, corner1, corner2, true);
+    }
+
+    /**
+     * Creates a new Arena.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     * @param game          The game of the arena.
+     * @param arenaName     The name of the arena.
+     * @param corner1       A corner of the arena's region.
+     * @param corner2       The opposite corner of the arena's region.
+     * @param saveConfigs   If the game and arena configs should be saved. Bulk loaders pass false and save once when done.
+     */
+    public Arena(UltimateGames ultimateGames, Game game, String arenaName, Location corner1, Location corner2, boolean saveConfigs) {
+        this(ultimateGames, game, arenaName, Region.fromCorners(corner1, corner2), saveConfigs);
+    }
+
+    /**
+     * Creates a new Arena in a region whose world might not be loaded yet.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     * @param game          The game of the arena.
+     * @param arenaName     The name of the arena.
+     * @param region        The arena's region.
+     * @param saveConfigs   If the game and arena configs should be saved. Bulk loaders pass false and save once when done.
+     */
+    public Arena(UltimateGames ultimateGames, Game game, String arenaName, Region region, boolean saveConfigs) {
         this.ultimateGames = ultimateGames;
         this.arenaName = arenaName;
         this.game = game;
+        this.instanceOf = null;
         FileConfiguration gamesConfig = ultimateGames.getConfigManager().getGameConfig(game);
         FileConfiguration arenaConfig = ultimateGames.getConfigManager().getConfig(ConfigType.ARENA);
         String arenaPath = "Arenas." + game.getName() + "." + arenaName;
@@ -86,6 +121,8 @@ public class Arena implements Listener {
         allowMobSpawning = arenaConfig.getBoolean(arenaPath + ".Allow-Mob-Spawning", gamesConfig.getBoolean("DefaultSettings.Allow-Mob-Spawning", false));
         minPlayers = arenaConfig.getInt(arenaPath + ".Min-Players", gamesConfig.getInt("DefaultSettings.MinPlayers", DEFAULT_MIN_PLAYERS));
         arenaStatus = ArenaStatus.valueOf(arenaConfig.getString(arenaPath + ".Status", "ARENA_STOPPED"));
+        template = arenaConfig.getBoolean(arenaPath + ".Template", false);
+        standbyCopies = arenaConfig.getInt(arenaPath + ".Standby-Copies", gamesConfig.getInt("DefaultSettings.Standby-Copies", 0));
         if (game.getPlayerType() == PlayerType.SINGLE_PLAYER) {
             maxPlayers = 1;
         } else if (game.getPlayerType() == PlayerType.TWO_PLAYER) {
@@ -94,7 +131,7 @@ public class Arena implements Listener {
             maxPlayers = arenaConfig.getInt(arenaPath + ".Max-Players", gamesConfig.getInt("DefaultSettings.MaxPlayers", DEFAULT_MAX_PLAYERS));
         }
 
-        region = Region.fromCorners(corner1, corner2);
+        this.region = region;
 
         // create the arena in the config if it doesn't exist
         if (arenaConfig.getConfigurationSection(arenaPath) == null) {
@@ -110,13 +147,44 @@ public class Arena implements Listener {
             arenaConfig.set(arenaPath + ".Allow-Explosion-Damage", allowExplosionDamage);
             arenaConfig.set(arenaPath + ".Allow-Explosion-Block-Breaking", allowExplosionBlockBreaking);
             arenaConfig.set(arenaPath + ".Allow-Mob-Spawning", allowMobSpawning);
+            arenaConfig.set(arenaPath + ".Template", template);
+            arenaConfig.set(arenaPath + ".Standby-Copies", standbyCopies);
             arenaConfig.set(arenaPath + ".Arena-Region", region.toList());
         }
-        ultimateGames.getConfigManager().getGameConfigAccessor(game).saveConfig();
-        ultimateGames.getConfigManager().getConfigAccessor(ConfigType.ARENA).saveConfig();
+        if (saveConfigs) {
+            ultimateGames.getConfigManager().getGameConfigAccessor(game).saveConfig();
+            ultimateGames.getConfigManager().getConfigAccessor(ConfigType.ARENA).saveConfig();
+        }
         timesPlayed = 0;
+    }
 
-        ultimateGames.getServer().getPluginManager().registerEvents(this, ultimateGames);
+    /**
+     * Creates a new instance of a template arena. Instances copy the template's settings and are never saved to the config.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     * @param template      The template arena.
+     * @param arenaName     The name of the instance.
+     * @param region        The region of the instance.
+     */
+    public Arena(UltimateGames ultimateGames, Arena template, String arenaName, Region region) {
+        this.ultimateGames = ultimateGames;
+        this.arenaName = arenaName;
+        this.game = template.game;
+        this.instanceOf = template;
+        storeInventory = template.storeInventory;
+        storeArmor = template.storeArmor;
+        storeExp = template.storeExp;
+        storeEffects = template.storeEffects;
+        storeGamemode = template.storeGamemode;
+        resetAfterMatch = template.resetAfterMatch;
+        allowExplosionDamage = template.allowExplosionDamage;
+        allowExplosionBlockBreaking = template.allowExplosionBlockBreaking;
+        allowMobSpawning = template.allowMobSpawning;
+        minPlayers = template.minPlayers;
+        maxPlayers = template.maxPlayers;
+        arenaStatus = ArenaStatus.ARENA_STOPPED;
+        this.region = region;
+        timesPlayed = 0;
     }
 
     /**
@@ -156,13 +224,26 @@ public class Arena implements Listener {
      * @return If it was successful.
      */
     public boolean addPlayer(String playerName) {
+        return addPlayer(playerName, true);
+    }
+
+    /**
+     * Adds a player to the arena's player list.
+     *
+     * @param playerName  The player's name.
+     * @param updateSigns If the arena's lobby signs should be updated.
+     * @return If it was successful.
+     */
+    public boolean addPlayer(String playerName, boolean updateSigns) {
         if (game.getPlayerType() != PlayerType.INFINITE && players.size() >= maxPlayers) {
             return false;
         } else if (players.contains(playerName)) {
             return false;
         } else {
             players.add(playerName);
-            ultimateGames.getUGSignManager().updateUGSignsOfArena(this, SignType.LOBBY);
+            if (updateSigns) {
+                ultimateGames.getUGSignManager().updateUGSignsOfArena(this, SignType.LOBBY);
+            }
             return true;
         }
     }
@@ -376,6 +457,42 @@ public class Arena implements Listener {
         return region;
     }
 
+    /**
+     * Checks if the arena is a template that instances are created from when its game's matchmaking queue grows.
+     *
+     * @return True if the arena is a template, else false.
+     */
+    public boolean isTemplate() {
+        return template;
+    }
+
+    /**
+     * Gets the amount of reset copies of the arena to keep on standby, ready to take over its queue when a match ends.
+     *
+     * @return The amount of standby copies.
+     */
+    public int getStandbyCopies() {
+        return standbyCopies;
+    }
+
+    /**
+     * Checks if the arena is an instance copied from another arena.
+     *
+     * @return True if the arena is an instance, else false.
+     */
+    public boolean isInstance() {
+        return instanceOf != null;
+    }
+
+    /**
+     * Gets the arena the instance was copied from.
+     *
+     * @return The template. Null if the arena isn't an instance.
+     */
+    public Arena getTemplate() {
+        return instanceOf;
+    }
+
     /**
      * Gets the amount of times played.
      *
@@ -392,9 +509,11 @@ public class Arena implements Listener {
      */
     public void setStatus(ArenaStatus status) {
         arenaStatus = status;
-        ConfigAccessor arenaConfig = ultimateGames.getConfigManager().getConfigAccessor(ConfigType.ARENA);
-        arenaConfig.getConfig().set("Arenas." + game.getName() + PATH_SEPARATOR + arenaName + ".Status", status.toString());
-        arenaConfig.saveConfig();
+        if (!isInstance()) {
+            ConfigAccessor arenaConfig = ultimateGames.getConfigManager().getConfigAccessor(ConfigType.ARENA);
+            arenaConfig.getConfig().set("Arenas." + game.getName() + PATH_SEPARATOR + arenaName + ".Status", status.toString());
+            arenaConfig.saveConfig();
+        }
         if (ultimateGames.getUGSignManager() != null) {
             ultimateGames.getUGSignManager().updateUGSignsOfArena(this, SignType.LOBBY);
         }
@@ -415,53 +534,36 @@ public class Arena implements Listener {
     }
 
     /**
-     * Handles player movement to keep players or spectators from leaving the arena.
-     */
-    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
-    public void onPlayerMove(PlayerMoveEvent event) {
-        Location from = event.getFrom();
-        Location to = event.getTo();
-        Player player = event.getPlayer();
-        if (!(from.getBlockX() == to.getBlockX() && from.getBlockZ() == to.getBlockZ()) && players.contains(player.getName())) {
-            boolean left = false;
-            int x = 0;
-            int z = 0;
-            if (to.getX() < region.getMinX()) {
-                x = (int) (region.getMinX() - to.getX());
-                left = true;
-            } else if (to.getX() > region.getMaxX()) {
-                x = (int) (region.getMaxX() - to.getX());
-                left = true;
-            }
-            if (to.getZ() < region.getMinZ()) {
-                z = (int) (region.getMinZ() - to.getZ());
-                left = true;
-            } else if (to.getZ() > region.getMaxZ()) {
-                z = (int) (region.getMaxZ() - to.getZ());
-                left = true;
-            }
-            if (left) {
-                Vector vector = new Vector(x, 0, z);
-                Entity toMove = player;
-                while (toMove.getVehicle() != null) {
-                    toMove = toMove.getVehicle();
-                }
-                toMove.setVelocity(vector);
-                ultimateGames.getMessenger().sendMessage(player, "protections.leave");
-            }
-            game.getGamePlugin().onPlayerMove(this, event);
-        }
-    }
-
-    /**
-     * Stops players and spectators from teleporting out of an arena.
+     * Pushes a player back towards the arena if the player moved outside of it.
+     *
+     * @param player The player.
+     * @param to     The location the player moved to.
      */
-    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
-    public void onPlayerTeleport(PlayerTeleportEvent event) {
-        Player player = event.getPlayer();
-        String playerName = player.getName();
-        if ((players.contains(playerName) || spectators.contains(playerName)) && !locationIsInArena(event.getTo())) {
-            event.setCancelled(true);
+    public void keepPlayerInside(Player player, Location to) {
+        boolean left = false;
+        int x = 0;
+        int z = 0;
+        if (to.getX() < region.getMinX()) {
+            x = (int) (region.getMinX() - to.getX());
+            left = true;
+        } else if (to.getX() > region.getMaxX()) {
+            x = (int) (region.getMaxX() - to.getX());
+            left = true;
+        }
+        if (to.getZ() < region.getMinZ()) {
+            z = (int) (region.getMinZ() - to.getZ());
+            left = true;
+        } else if (to.getZ() > region.getMaxZ()) {
+            z = (int) (region.getMaxZ() - to.getZ());
+            left = true;
+        }
+        if (left) {
+            Vector vector = new Vector(x, 0, z);
+            Entity toMove = player;
+            while (toMove.getVehicle() != null) {
+                toMove = toMove.getVehicle();
+            }
+            toMove.setVelocity(vector);
             ultimateGames.getMessenger().sendMessage(player, "protections.leave");
         }
     }
@@ -0,0 +1,169 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.arenas;
+
+import me.ampayne2.ultimategames.utils.ChunkKey;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A per-world spatial index of the chunks each arena's region overlaps.
+ */
+public class ArenaChunkIndex {
+    private final Map<String, Map<Long, List<Arena>>> worlds = new HashMap<String, Map<Long, List<Arena>>>();
+
+    /**
+     * Adds an arena to the chunks its region overlaps.
+     *
+     * @param arena The arena.
+     */
+    public void addArena(Arena arena) {
+        Region region = arena.getRegion();
+        if (region == null) {
+            return;
+        }
+        String worldName = region.getWorldName();
+        Map<Long, List<Arena>> chunks = worlds.get(worldName);
+        if (chunks == null) {
+            chunks = new HashMap<Long, List<Arena>>();
+            worlds.put(worldName, chunks);
+        }
+        int minChunkX = toChunk(region.getMinX());
+        int maxChunkX = toChunk(region.getMaxX());
+        int minChunkZ = toChunk(region.getMinZ());
+        int maxChunkZ = toChunk(region.getMaxZ());
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                Long key = ChunkKey.pack(chunkX, chunkZ);
+                List<Arena> chunkArenas = chunks.get(key);
+                if (chunkArenas == null) {
+                    chunkArenas = new ArrayList<Arena>(1);
+                    chunks.put(key, chunkArenas);
+                }
+                if (!chunkArenas.contains(arena)) {
+                    chunkArenas.add(arena);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes an arena from every chunk it was indexed in.
+     *
+     * @param arena The arena.
+     */
+    public void removeArena(Arena arena) {
+        Region region = arena.getRegion();
+        if (region == null) {
+            return;
+        }
+        String worldName = region.getWorldName();
+        Map<Long, List<Arena>> chunks = worlds.get(worldName);
+        if (chunks == null) {
+            return;
+        }
+        int minChunkX = toChunk(region.getMinX());
+        int maxChunkX = toChunk(region.getMaxX());
+        int minChunkZ = toChunk(region.getMinZ());
+        int maxChunkZ = toChunk(region.getMaxZ());
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                Long key = ChunkKey.pack(chunkX, chunkZ);
+                List<Arena> chunkArenas = chunks.get(key);
+                if (chunkArenas != null) {
+                    chunkArenas.remove(arena);
+                    if (chunkArenas.isEmpty()) {
+                        chunks.remove(key);
+                    }
+                }
+            }
+        }
+        if (chunks.isEmpty()) {
+            worlds.remove(worldName);
+        }
+    }
+
+    /**
+     * Checks if no arena overlaps a chunk.
+     *
+     * @param world  The world of the chunk.
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @return True if no arena overlaps the chunk, else false.
+     */
+    public boolean isChunkArenaFree(World world, int chunkX, int chunkZ) {
+        return getChunkArenas(world, chunkX, chunkZ) == null;
+    }
+
+    /**
+     * Gets the arenas overlapping a chunk.
+     *
+     * @param world  The world of the chunk.
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @return The arenas. Null if no arena overlaps the chunk.
+     */
+    public List<Arena> getChunkArenas(World world, int chunkX, int chunkZ) {
+        if (world == null) {
+            return null;
+        }
+        Map<Long, List<Arena>> chunks = worlds.get(world.getName());
+        return chunks == null ? null : chunks.get(ChunkKey.pack(chunkX, chunkZ));
+    }
+
+    /**
+     * Gets the arena a location is inside of.
+     *
+     * @param location The location.
+     * @return The arena. Null if location isn't inside an arena.
+     */
+    public Arena getLocationArena(Location location) {
+        List<Arena> chunkArenas = getChunkArenas(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        if (chunkArenas != null) {
+            for (Arena arena : chunkArenas) {
+                if (arena.locationIsInArena(location)) {
+                    return arena;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes every arena from the index.
+     */
+    public void clear() {
+        worlds.clear();
+    }
+
+    /**
+     * Converts a block coordinate to a chunk coordinate.
+     *
+     * @param coordinate The block coordinate.
+     * @return The chunk coordinate.
+     */
+    private static int toChunk(double coordinate) {
+        return ((int) Math.floor(coordinate)) >> 4;
+    }
+}
@@ -98,15 +98,17 @@ public class ArenaListener implements Listener {
                 if (!ultimateGames.getPlayerManager().getArenaPlayer(playerName).isEditing()) {
                     if (arena.getStatus() == ArenaStatus.RUNNING && ultimateGames.getWhitelistManager().getBlockBreakWhitelist().canBreakMaterial(arena.getGame(), event.getBlock().getType())) {
                         Block block = event.getBlock();
-                        if ((block.getType() == Material.SIGN_POST || block.getType() == Material.WALL_SIGN) && ultimateGames.getUGSignManager().isUGSign((Sign) block.getState())) {
-                            event.setCancelled(true);
-                            return;
-                        }
-                        for (Sign attachedSign : UGUtils.getAttachedSigns(block, true)) {
-                            if (ultimateGames.getUGSignManager().isUGSign(attachedSign)) {
+                        if (ultimateGames.getUGSignManager().isProtectedBlock(block)) {
+                            if (ultimateGames.getUGSignManager().isUGSign(block)) {
                                 event.setCancelled(true);
                                 return;
                             }
+                            for (Sign attachedSign : UGUtils.getAttachedSigns(block, true)) {
+                                if (ultimateGames.getUGSignManager().isUGSign(attachedSign)) {
+                                    event.setCancelled(true);
+                                    return;
+                                }
+                            }
                         }
                         arena.getGame().getGamePlugin().onBlockBreak(arena, event);
                     } else {
@@ -170,9 +172,13 @@ public class ArenaListener implements Listener {
      */
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onBlockPhysics(BlockPhysicsEvent event) {
+        Block block = event.getBlock();
+        if (ultimateGames.getArenaManager().isChunkArenaFree(block.getWorld(), block.getX() >> 4, block.getZ() >> 4)) {
+            return;
+        }
         Material material = event.getChangedType();
         if (material == Material.WATER || material == Material.LAVA || UGUtils.hasPhysics(material)) {
-            Arena arena = ultimateGames.getArenaManager().getLocationArena(event.getBlock().getLocation());
+            Arena arena = ultimateGames.getArenaManager().getLocationArena(block.getLocation());
             if (arena != null && arena.getStatus() != ArenaStatus.RUNNING) {
                 event.setCancelled(true);
             }
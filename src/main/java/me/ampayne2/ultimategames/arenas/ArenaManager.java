@@ -19,20 +19,30 @@
 package me.ampayne2.ultimategames.arenas;
 
 import me.ampayne2.ultimategames.UltimateGames;
+import me.ampayne2.ultimategames.arenas.rollback.RollbackManager;
 import me.ampayne2.ultimategames.arenas.spawnpoints.PlayerSpawnPoint;
+import me.ampayne2.ultimategames.arenas.spawnpoints.SpawnpointManager;
+import me.ampayne2.ultimategames.config.ConfigManager;
 import me.ampayne2.ultimategames.config.ConfigType;
 import me.ampayne2.ultimategames.events.arenas.*;
 import me.ampayne2.ultimategames.games.Game;
+import me.ampayne2.ultimategames.players.TeleportScheduler;
 import me.ampayne2.ultimategames.players.teams.Team;
+import me.ampayne2.ultimategames.signs.UGSignManager;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.logging.Level;
 
 /**
  * Manages the ultimate games arenas.
@@ -40,12 +50,16 @@ import java.util.Map.Entry;
 public class ArenaManager {
     private final UltimateGames ultimateGames;
     private Map<Game, List<Arena>> arenas = new HashMap<Game, List<Arena>>();
+    private final ArenaChunkIndex chunkIndex = new ArenaChunkIndex();
+    private final Map<String, List<ArenaDefinition>> pendingArenas = new HashMap<String, List<ArenaDefinition>>();
     private static final int X_INDEX = 0;
     private static final int Y_INDEX = 1;
     private static final int Z_INDEX = 2;
     private static final int PITCH_INDEX = 3;
     private static final int YAW_INDEX = 4;
     private static final int LOCKED_INDEX = 5;
+    private static final String PATH_SEPARATOR = ".";
+    private static final long NANOS_PER_MILLI = 1000000;
 
     /**
      * Creates a new ArenaManager.
@@ -54,53 +68,202 @@ public class ArenaManager {
      */
     public ArenaManager(UltimateGames ultimateGames) {
         this.ultimateGames = ultimateGames;
+        loadArenas();
+    }
+
+    /**
+     * Bulk loads all of the arenas in the arena config.<br>
+     * Every definition is parsed first, then the arenas are built without saving, and the configs are saved once at the end.
+     * Arenas in worlds that aren't loaded and aren't managed arena worlds are built once their world loads.
+     * Arenas in managed arena worlds are built right away with an unbound region, so they can be opened and load their world on demand.
+     */
+    private void loadArenas() {
+        long startTime = System.nanoTime();
+        List<ArenaDefinition> definitions = new ArrayList<ArenaDefinition>();
+        for (ArenaDefinition definition : parseArenaDefinitions()) {
+            String worldName = definition.region.getWorldName();
+            if (definition.region.getWorld() == null && !ultimateGames.getArenaWorldManager().isManaged(worldName)) {
+                List<ArenaDefinition> worldDefinitions = pendingArenas.get(worldName);
+                if (worldDefinitions == null) {
+                    worldDefinitions = new ArrayList<ArenaDefinition>();
+                    pendingArenas.put(worldName, worldDefinitions);
+                }
+                worldDefinitions.add(definition);
+            } else {
+                definitions.add(definition);
+            }
+        }
+        long parsedTime = System.nanoTime();
+        int loaded = buildArenas(definitions).size();
+        long savedTime = System.nanoTime();
+
+        // Managed arena worlds stay unloaded until one of their arenas opens, unless an arena was left open
+        for (Arena arena : getArenas()) {
+            if (arena.getRegion().getWorld() == null && arena.getStatus() != ArenaStatus.ARENA_STOPPED) {
+                World world = ultimateGames.getArenaWorldManager().loadWorld(arena.getRegion().getWorldName());
+                if (world != null) {
+                    bindWorld(world);
+                }
+            }
+        }
+
+        ultimateGames.getMessenger().log(Level.INFO, "Loaded " + loaded + " arenas in " + toMillis(savedTime - startTime) + "ms (parse " + toMillis(parsedTime - startTime) + "ms, build " + toMillis(savedTime - parsedTime) + "ms)");
+        if (!pendingArenas.isEmpty()) {
+            ultimateGames.getMessenger().log(Level.INFO, "Arenas in the unloaded worlds " + pendingArenas.keySet() + " will be loaded with their worlds");
+        }
+    }
+
+    /**
+     * Builds parsed arenas with their spawnpoints, then saves the configs once.
+     *
+     * @param definitions The arena definitions.
+     * @return The arenas their games loaded.
+     */
+    private List<Arena> buildArenas(List<ArenaDefinition> definitions) {
+        Set<Game> loadedGames = new HashSet<Game>();
+        List<Arena> loadedArenas = new ArrayList<Arena>();
+        List<ArenaDefinition> loadedDefinitions = new ArrayList<ArenaDefinition>();
+        for (ArenaDefinition definition : definitions) {
+            Arena arena = new Arena(ultimateGames, definition.game, definition.name, definition.region, false);
+            loadedGames.add(definition.game);
+            if (addArena(arena)) {
+                loadedArenas.add(arena);
+                loadedDefinitions.add(definition);
+            }
+        }
+
+        SpawnpointManager spawnpointManager = ultimateGames.getSpawnpointManager();
+        for (int i = 0; i < loadedArenas.size(); i++) {
+            Arena arena = loadedArenas.get(i);
+            ArenaDefinition definition = loadedDefinitions.get(i);
+            for (int j = 0; j < definition.spawnPoints.size(); j++) {
+                spawnpointManager.addSpawnPoint(new PlayerSpawnPoint(ultimateGames, arena, definition.spawnPoints.get(j), definition.lockedSpawnPoints.get(j)));
+            }
+            if (definition.spectatorSpawnPoint != null) {
+                spawnpointManager.setSpectatorSpawnPoint(arena, definition.spectatorSpawnPoint);
+            }
+        }
+
+        ConfigManager configManager = ultimateGames.getConfigManager();
+        for (Game game : loadedGames) {
+            configManager.getGameConfigAccessor(game).saveConfig();
+        }
+        configManager.getConfigAccessor(ConfigType.ARENA).saveConfig();
+        return loadedArenas;
+    }
+
+    /**
+     * Binds the arenas of a world that was loaded to it, and builds the arenas that were waiting for it.
+     *
+     * @param world The world.
+     */
+    public void bindWorld(World world) {
+        for (Arena arena : getArenas()) {
+            if (arena.getRegion().getWorldName().equals(world.getName())) {
+                arena.getRegion().bindWorld(world);
+            }
+        }
+        List<ArenaDefinition> definitions = pendingArenas.remove(world.getName());
+        if (definitions != null) {
+            for (ArenaDefinition definition : definitions) {
+                definition.region.bindWorld(world);
+            }
+            List<Arena> loaded = buildArenas(definitions);
+            // Signs are loaded with the rest at enable, after the first arenas are built
+            UGSignManager ugSignManager = ultimateGames.getUGSignManager();
+            if (ugSignManager != null) {
+                ugSignManager.loadUGSigns(loaded);
+            }
+            ultimateGames.getMessenger().log(Level.INFO, "Loaded " + loaded.size() + " arenas of world " + world.getName());
+        }
+    }
+
+    /**
+     * Unbinds the arenas of a world that is being unloaded from it.
+     *
+     * @param world The world.
+     */
+    public void unbindWorld(World world) {
+        for (Arena arena : getArenas()) {
+            if (arena.getRegion().getWorld() == world) {
+                arena.getRegion().bindWorld(null);
+            }
+        }
+    }
+
+    /**
+     * Parses every arena, spawnpoint and spectator spawnpoint definition in the arena config.
+     *
+     * @return The arena definitions.
+     */
+    private List<ArenaDefinition> parseArenaDefinitions() {
+        List<ArenaDefinition> definitions = new ArrayList<ArenaDefinition>();
+        Set<String> parsed = new HashSet<String>();
         FileConfiguration arenaConfig = ultimateGames.getConfigManager().getConfig(ConfigType.ARENA);
         if (arenaConfig.getConfigurationSection("Arenas") != null) {
             for (String gameKey : arenaConfig.getConfigurationSection("Arenas").getKeys(false)) {
                 if (ultimateGames.getGameManager().gameExists(gameKey)) {
+                    Game game = ultimateGames.getGameManager().getGame(gameKey);
                     String gamePath = "Arenas." + gameKey;
                     for (String arenaKey : arenaConfig.getConfigurationSection(gamePath).getKeys(false)) {
-                        if (!arenaExists(arenaKey, gameKey)) {
-                            String arenaPath = gamePath + "." + arenaKey;
-                            Region region = Region.fromList(arenaConfig.getStringList(arenaPath + ".Arena-Region"));
-                            Arena arena = new Arena(ultimateGames, ultimateGames.getGameManager().getGame(gameKey), arenaKey, region.getMinimumLocation(), region.getMaximumLocation());
-                            addArena(arena);
-                            if (arenaConfig.contains(arenaPath + ".SpawnPoints")) {
-                                @SuppressWarnings("unchecked") List<ArrayList<String>> spawnPoints = (ArrayList<ArrayList<String>>) arenaConfig.getList(arenaPath + ".SpawnPoints");
-                                if (!spawnPoints.isEmpty()) {
-                                    for (ArrayList<String> spawnPoint : spawnPoints) {
-                                        Double x = Double.valueOf(spawnPoint.get(X_INDEX));
-                                        Double y = Double.valueOf(spawnPoint.get(Y_INDEX));
-                                        Double z = Double.valueOf(spawnPoint.get(Z_INDEX));
-                                        Float pitch = Float.valueOf(spawnPoint.get(PITCH_INDEX));
-                                        Float yaw = Float.valueOf(spawnPoint.get(YAW_INDEX));
-                                        Location location = new Location(region.getWorld(), x, y, z);
-                                        location.setPitch(pitch);
-                                        location.setYaw(yaw);
-                                        PlayerSpawnPoint newSpawnPoint = new PlayerSpawnPoint(ultimateGames, getArena(arenaKey, gameKey), location, Boolean.valueOf(spawnPoint.get(LOCKED_INDEX)));
-                                        ultimateGames.getSpawnpointManager().addSpawnPoint(newSpawnPoint);
-                                    }
-                                }
+                        if (!parsed.add(game.getName() + PATH_SEPARATOR + arenaKey.toLowerCase())) {
+                            continue;
+                        }
+                        String arenaPath = gamePath + PATH_SEPARATOR + arenaKey;
+                        Region region = Region.fromList(arenaConfig.getStringList(arenaPath + ".Arena-Region"));
+                        if (region == null) {
+                            ultimateGames.getMessenger().log(Level.WARNING, "Could not load the region of arena " + arenaKey + " of game " + gameKey);
+                            continue;
+                        }
+                        ArenaDefinition definition = new ArenaDefinition(game, arenaKey, region);
+                        if (arenaConfig.contains(arenaPath + ".SpawnPoints")) {
+                            @SuppressWarnings("unchecked") List<ArrayList<String>> spawnPoints = (ArrayList<ArrayList<String>>) arenaConfig.getList(arenaPath + ".SpawnPoints");
+                            for (ArrayList<String> spawnPoint : spawnPoints) {
+                                definition.spawnPoints.add(parseLocation(region, spawnPoint));
+                                definition.lockedSpawnPoints.add(Boolean.valueOf(spawnPoint.get(LOCKED_INDEX)));
                             }
-                            if (arenaConfig.contains(arenaPath + ".SpectatorSpawnpoint")) {
-                                @SuppressWarnings("unchecked") List<String> spawnPoint = (ArrayList<String>) arenaConfig.getList(arenaPath + ".SpectatorSpawnpoint");
-                                if (!spawnPoint.isEmpty()) {
-                                    Double x = Double.valueOf(spawnPoint.get(X_INDEX));
-                                    Double y = Double.valueOf(spawnPoint.get(Y_INDEX));
-                                    Double z = Double.valueOf(spawnPoint.get(Z_INDEX));
-                                    Float pitch = Float.valueOf(spawnPoint.get(PITCH_INDEX));
-                                    Float yaw = Float.valueOf(spawnPoint.get(YAW_INDEX));
-                                    Location location = new Location(region.getWorld(), x, y, z);
-                                    location.setPitch(pitch);
-                                    location.setYaw(yaw);
-                                    ultimateGames.getSpawnpointManager().setSpectatorSpawnPoint(getArena(arenaKey, gameKey), location);
-                                }
+                        }
+                        if (arenaConfig.contains(arenaPath + ".SpectatorSpawnpoint")) {
+                            @SuppressWarnings("unchecked") List<String> spawnPoint = (ArrayList<String>) arenaConfig.getList(arenaPath + ".SpectatorSpawnpoint");
+                            if (!spawnPoint.isEmpty()) {
+                                definition.spectatorSpawnPoint = parseLocation(region, spawnPoint);
                             }
                         }
+                        definitions.add(definition);
                     }
                 }
             }
         }
+        return definitions;
+    }
+
+    /**
+     * Parses a spawnpoint location in list form.
+     *
+     * @param region     The region of the spawnpoint's arena.
+     * @param spawnPoint The spawnpoint in list form.
+     * @return The location.
+     */
+    private static Location parseLocation(Region region, List<String> spawnPoint) {
+        Double x = Double.valueOf(spawnPoint.get(X_INDEX));
+        Double y = Double.valueOf(spawnPoint.get(Y_INDEX));
+        Double z = Double.valueOf(spawnPoint.get(Z_INDEX));
+        Float pitch = Float.valueOf(spawnPoint.get(PITCH_INDEX));
+        Float yaw = Float.valueOf(spawnPoint.get(YAW_INDEX));
+        Location location = new Location(region.getWorld(), x, y, z);
+        location.setPitch(pitch);
+        location.setYaw(yaw);
+        return location;
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds.
+     *
+     * @param nanos The nanoseconds.
+     * @return The milliseconds.
+     */
+    private static long toMillis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
     }
 
     /**
@@ -139,14 +302,20 @@ public class ArenaManager {
      * @return The arena. Null if location isn't inside arena.
      */
     public Arena getLocationArena(Location location) {
-        for (Entry<Game, List<Arena>> entry : arenas.entrySet()) {
-            for (Arena arena : entry.getValue()) {
-                if (arena.locationIsInArena(location)) {
-                    return arena;
-                }
-            }
-        }
-        return null;
+        return chunkIndex.getLocationArena(location);
+    }
+
+    /**
+     * Checks if no arena overlaps a chunk.<br>
+     * Much cheaper than getLocationArena, use it to reject events outside of arenas early.
+     *
+     * @param world  The world of the chunk.
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @return True if no arena overlaps the chunk, else false.
+     */
+    public boolean isChunkArenaFree(World world, int chunkX, int chunkZ) {
+        return chunkIndex.isChunkArenaFree(world, chunkX, chunkZ);
     }
 
     /**
@@ -185,8 +354,9 @@ public class ArenaManager {
      * Adds an arena to the manager.
      *
      * @param arena The arena.
+     * @return True if the arena's game loaded the arena, else false.
      */
-    public void addArena(Arena arena) {
+    public boolean addArena(Arena arena) {
         if (arena.getGame().getGamePlugin().loadArena(arena)) {
             if (arenas.containsKey(arena.getGame())) {
                 arenas.get(arena.getGame()).add(arena);
@@ -195,7 +365,28 @@ public class ArenaManager {
                 gameArenas.add(arena);
                 arenas.put(arena.getGame(), gameArenas);
             }
+            chunkIndex.addArena(arena);
             ultimateGames.getMetricsManager().addArena(arena);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes an arena from the manager.
+     *
+     * @param arena The arena.
+     */
+    public void removeArena(Arena arena) {
+        List<Arena> gameArenas = arenas.get(arena.getGame());
+        if (gameArenas != null && gameArenas.remove(arena)) {
+            if (gameArenas.isEmpty()) {
+                arenas.remove(arena.getGame());
+            }
+            chunkIndex.removeArena(arena);
+            ultimateGames.getRollbackManager().discard(arena);
+            arena.getGame().getGamePlugin().unloadArena(arena);
+            ultimateGames.getMetricsManager().removeArena(arena);
         }
     }
 
@@ -216,11 +407,20 @@ public class ArenaManager {
                     case ENDING:
                     case RESET_FAILED:
                     case ARENA_STOPPED:
+                        if (!ultimateGames.getArenaWorldManager().loadWorld(arena)) {
+                            ultimateGames.getMessenger().log(Level.WARNING, "Could not open arena " + arena.getName() + " of game " + arena.getGame().getName() + " because world " + arena.getRegion().getWorldName() + " isn't loaded");
+                            break;
+                        }
                         if (arena.getGame().getGamePlugin().openArena(arena)) {
                             arena.setStatus(ArenaStatus.OPEN);
+                            List<Player> queuedPlayers = new ArrayList<Player>();
                             for (String playerName : ultimateGames.getQueueManager().getNextPlayers(arena.getMaxPlayers() - arena.getPlayers().size(), arena)) {
-                                ultimateGames.getPlayerManager().addPlayerToArena(Bukkit.getPlayerExact(playerName), arena, true);
+                                Player player = Bukkit.getPlayerExact(playerName);
+                                if (player != null) {
+                                    queuedPlayers.add(player);
+                                }
                             }
+                            ultimateGames.getPlayerManager().addPlayersToArena(queuedPlayers, arena);
                             ultimateGames.getMessenger().debug("Opened arena " + arena.getName() + " of game " + arena.getGame().getName());
                         }
                         break;
@@ -303,6 +503,10 @@ public class ArenaManager {
                         event = new ArenaEndEvent(arena, EndType.UNFORCED);
                     }
                     arena.setStatus(ArenaStatus.ENDING);
+                    // Arenas that reopen right away keep their queue
+                    if (arena.resetAfterMatch() && ultimateGames.getQueueManager().getQueueSize(arena) > 0) {
+                        ultimateGames.getInstanceManager().takeOver(arena);
+                    }
 
                     if (ultimateGames.getCountdownManager().hasStartingCountdown(arena)) {
                         ultimateGames.getCountdownManager().stopStartingCountdown(arena);
@@ -311,6 +515,7 @@ public class ArenaManager {
                         ultimateGames.getCountdownManager().stopEndingCountdown(arena);
                     }
                     arena.getGame().getGamePlugin().endArena(arena);
+                    ultimateGames.getRatingManager().rateMatch(arena);
 
                     ultimateGames.getScoreboardManager().removeScoreboard(arena);
 
@@ -320,23 +525,20 @@ public class ArenaManager {
 
                     ultimateGames.getMessenger().sendMessage(arena, "arenas.end");
 
-                    // Teleport everybody out of the arena
-                    for (String playerName : arena.getSpectators()) {
-                        ultimateGames.getPlayerManager().removeSpectatorFromArena(Bukkit.getPlayerExact(playerName));
-                    }
-                    for (String playerName : arena.getPlayers()) {
-                        ultimateGames.getPlayerManager().removePlayerFromArena(Bukkit.getPlayerExact(playerName), false);
-                    }
+                    // Teleport everybody out of the arena, resetting the arena once everybody is out
+                    ultimateGames.getPlayerManager().removeAllFromArena(arena, new TeleportScheduler.TeleportCallback() {
+                        @Override
+                        public void onTeleportsComplete(Arena arena, List<Player> arrived) {
+                            if (arena.getStatus() == ArenaStatus.RESETTING) {
+                                resetArena(arena);
+                            }
+                        }
+                    });
 
                     ultimateGames.getMessenger().debug("Ended arena " + arena.getName() + " of game " + arena.getGame().getName());
                     Bukkit.getPluginManager().callEvent(event);
                     if (arena.resetAfterMatch()) {
                         arena.setStatus(ArenaStatus.RESETTING);
-                        // TODO: Reset arena world
-                        if (!arena.getGame().getGamePlugin().resetArena(arena)) {
-                            arena.setStatus(ArenaStatus.RESET_FAILED);
-                        }
-                        Bukkit.getPluginManager().callEvent(new ArenaResetEvent(arena));
                     } else {
                         arena.setStatus(ArenaStatus.ARENA_STOPPED);
                         openArena(arena);
@@ -346,6 +548,25 @@ public class ArenaManager {
         }
     }
 
+    /**
+     * Rolls back an arena that is resetting and lets its game reset it.
+     *
+     * @param arena The arena.
+     */
+    private void resetArena(Arena arena) {
+        ultimateGames.getRollbackManager().rollback(arena, new RollbackManager.RollbackCallback() {
+            @Override
+            public void onRollback(Arena arena, boolean success) {
+                if (!success || !arena.getGame().getGamePlugin().resetArena(arena)) {
+                    arena.setStatus(ArenaStatus.RESET_FAILED);
+                } else {
+                    ultimateGames.getInstanceManager().returnToPool(arena);
+                }
+                Bukkit.getPluginManager().callEvent(new ArenaResetEvent(arena));
+            }
+        });
+    }
+
     /**
      * Stops an arena.
      *
@@ -380,4 +601,22 @@ public class ArenaManager {
         }
         return arenaList;
     }
+
+    /**
+     * An arena parsed from the arena config that hasn't been built yet.
+     */
+    private static class ArenaDefinition {
+        private final Game game;
+        private final String name;
+        private final Region region;
+        private final List<Location> spawnPoints = new ArrayList<Location>();
+        private final List<Boolean> lockedSpawnPoints = new ArrayList<Boolean>();
+        private Location spectatorSpawnPoint;
+
+        private ArenaDefinition(Game game, String name, Region region) {
+            this.game = game;
+            this.name = name;
+            this.region = region;
+        }
+    }
 }
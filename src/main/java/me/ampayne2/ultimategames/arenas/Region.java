@@ -27,10 +27,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Represents a rectangular region in a world.
+ * Represents a rectangular region in a world.<br>
+ * The world is referenced by name, so a region can exist while its world isn't loaded.
  */
 public class Region {
-    private final World world;
+    private final String worldName;
+    private World world;
     private final Double minX;
     private final Double maxX;
     private final Double minZ;
@@ -46,6 +48,34 @@ public class Region {
      * @param maxZ  The region's maximum z.
      */
     public Region(World world, double minX, double maxX, double minZ, double maxZ) {
+        this(world.getName(), world, minX, maxX, minZ, maxZ);
+    }
+
+    /**
+     * Creates a new region in a world that might not be loaded.
+     *
+     * @param worldName The name of the world of the region.
+     * @param minX      The region's minimum x.
+     * @param maxX      The region's maximum x.
+     * @param minZ      The region's minimum z.
+     * @param maxZ      The region's maximum z.
+     */
+    public Region(String worldName, double minX, double maxX, double minZ, double maxZ) {
+        this(worldName, Bukkit.getServer().getWorld(worldName), minX, maxX, minZ, maxZ);
+    }
+
+    /**
+     * Creates a new region.
+     *
+     * @param worldName The name of the world of the region.
+     * @param world     The world of the region. Null if it isn't loaded.
+     * @param minX      The region's minimum x.
+     * @param maxX      The region's maximum x.
+     * @param minZ      The region's minimum z.
+     * @param maxZ      The region's maximum z.
+     */
+    private Region(String worldName, World world, double minX, double maxX, double minZ, double maxZ) {
+        this.worldName = worldName;
         this.world = world;
         this.minX = minX;
         this.maxX = maxX;
@@ -56,12 +86,30 @@ public class Region {
     /**
      * Gets the world of the region.
      *
-     * @return The region's world.
+     * @return The region's world. Null if the world isn't loaded.
      */
     public World getWorld() {
         return world;
     }
 
+    /**
+     * Gets the name of the world of the region.
+     *
+     * @return The name of the region's world.
+     */
+    public String getWorldName() {
+        return worldName;
+    }
+
+    /**
+     * Binds the region to its world after the world loaded, or unbinds it before the world unloads.
+     *
+     * @param world The world, or null to unbind.
+     */
+    void bindWorld(World world) {
+        this.world = world;
+    }
+
     /**
      * Gets the minimum x of the region.
      *
@@ -105,7 +153,7 @@ public class Region {
      */
     public List<String> toList() {
         List<String> list = new ArrayList<String>();
-        list.add(world.getName());
+        list.add(worldName);
         list.add(minX.toString());
         list.add(maxX.toString());
         list.add(minZ.toString());
@@ -132,22 +180,20 @@ public class Region {
     }
 
     /**
-     * Converts a region in list form back to a region.
+     * Converts a region in list form back to a region.<br>
+     * The region is returned even if its world isn't loaded, and is bound to the world when it loads.
      *
      * @param list The string list.
-     * @return The region.
+     * @return The region. Null if the list isn't a valid region.
      */
     public static Region fromList(List<String> list) {
         if (list != null && list.size() == 5) {
             try {
-                World world = Bukkit.getServer().getWorld(list.get(0));
                 Double minX = Double.parseDouble(list.get(1));
                 Double maxX = Double.parseDouble(list.get(2));
                 Double minZ = Double.parseDouble(list.get(3));
                 Double maxZ = Double.parseDouble(list.get(4));
-                if (world != null) {
-                    return new Region(world, minX, maxX, minZ, maxZ);
-                }
+                return new Region(list.get(0), minX, maxX, minZ, maxZ);
             } catch (Exception e) {
                 UltimateGames.getInstance().getMessenger().debug(e);
             }
@@ -0,0 +1,463 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.arenas.instances;
+
+import me.ampayne2.ultimategames.UltimateGames;
+import me.ampayne2.ultimategames.arenas.Arena;
+import me.ampayne2.ultimategames.arenas.ArenaStatus;
+import me.ampayne2.ultimategames.arenas.Region;
+import me.ampayne2.ultimategames.arenas.rollback.RegionClear;
+import me.ampayne2.ultimategames.arenas.rollback.RegionCopy;
+import me.ampayne2.ultimategames.arenas.rollback.RollbackManager;
+import me.ampayne2.ultimategames.arenas.rollback.SequentialRestore;
+import me.ampayne2.ultimategames.games.Game;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+/**
+ * Creates instances of template arenas when a game's matchmaking queue grows, and retires them once they sit idle.<br>
+ * Also keeps Standby-Copies reset copies of arenas ready, so an ending arena's queue can move to a copy right away.
+ * Instances are copied to slots on a grid in the instance world. They are never saved to the config.
+ */
+public class InstanceManager implements Runnable {
+    private final UltimateGames ultimateGames;
+    private final Map<Arena, List<Arena>> instances = new HashMap<Arena, List<Arena>>();
+    private final Map<Arena, Integer> slots = new HashMap<Arena, Integer>();
+    private final Set<Arena> building = new HashSet<Arena>();
+    private final Set<Arena> buildingStandby = new HashSet<Arena>();
+    private final Map<Arena, LinkedList<Arena>> standby = new HashMap<Arena, LinkedList<Arena>>();
+    private final Map<Arena, Integer> idleTicks = new HashMap<Arena, Integer>();
+    private final BitSet usedSlots = new BitSet();
+    private final String worldName;
+    private final int spacing;
+    private final int queueThreshold;
+    private final int maxIdleTicks;
+    private final int maxInstances;
+    private Integer taskId = null;
+    private static final int CHECK_INTERVAL = 20;
+    private static final int GRID_WIDTH = 64;
+    private static final int CHUNK_SIZE = 16;
+    private static final String INSTANCE_SEPARATOR = "#";
+    private static final String DEFAULT_WORLD = "UltimateGamesInstances";
+    private static final int DEFAULT_SPACING = 512;
+    private static final int DEFAULT_QUEUE_THRESHOLD = 4;
+    private static final int DEFAULT_IDLE_TICKS = 1200;
+    private static final int DEFAULT_MAX_INSTANCES = 8;
+
+    /**
+     * Creates a new InstanceManager.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     */
+    public InstanceManager(UltimateGames ultimateGames) {
+        this.ultimateGames = ultimateGames;
+        this.worldName = ultimateGames.getConfig().getString("InstanceWorld", DEFAULT_WORLD);
+        int configSpacing = Math.max(CHUNK_SIZE, ultimateGames.getConfig().getInt("InstanceSpacing", DEFAULT_SPACING));
+        this.spacing = (configSpacing + CHUNK_SIZE - 1) / CHUNK_SIZE * CHUNK_SIZE;
+        this.queueThreshold = Math.max(1, ultimateGames.getConfig().getInt("InstanceQueueThreshold", DEFAULT_QUEUE_THRESHOLD));
+        this.maxIdleTicks = ultimateGames.getConfig().getInt("InstanceIdleTicks", DEFAULT_IDLE_TICKS);
+        this.maxInstances = ultimateGames.getConfig().getInt("MaxInstancesPerTemplate", DEFAULT_MAX_INSTANCES);
+        ultimateGames.getArenaWorldManager().manageWorld(worldName);
+        taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(ultimateGames, this, CHECK_INTERVAL, CHECK_INTERVAL);
+    }
+
+    /**
+     * Gets the instances of a template arena.
+     *
+     * @param template The template arena.
+     * @return The instances.
+     */
+    public List<Arena> getInstances(Arena template) {
+        List<Arena> templateInstances = instances.get(template);
+        return templateInstances == null ? new ArrayList<Arena>() : new ArrayList<Arena>(templateInstances);
+    }
+
+    /**
+     * Moves the queue of an ending arena to a ready standby copy of its map and opens the copy.
+     *
+     * @param arena The ending arena.
+     * @return True if a standby copy took over, else false.
+     */
+    public boolean takeOver(Arena arena) {
+        Arena map = arena.isInstance() ? arena.getTemplate() : arena;
+        LinkedList<Arena> ready = standby.get(map);
+        if (ready == null || ready.isEmpty()) {
+            return false;
+        }
+        Arena copy = ready.poll();
+        ultimateGames.getQueueManager().transferQueue(arena, copy);
+        ultimateGames.getArenaManager().openArena(copy);
+        ultimateGames.getMessenger().debug("Standby copy " + copy.getName() + " took over from arena " + arena.getName() + " of game " + arena.getGame().getName());
+        return true;
+    }
+
+    /**
+     * Returns an instance that finished resetting to the standby pool of its map, if the pool isn't full.<br>
+     * An instance that can't be pooled and is still resetting is reopened, so it is either used again or retired once idle.
+     *
+     * @param arena The arena that finished resetting.
+     */
+    public void returnToPool(Arena arena) {
+        if (!arena.isInstance()) {
+            return;
+        }
+        Arena map = arena.getTemplate();
+        LinkedList<Arena> ready = standby.get(map);
+        if (!arena.getPlayers().isEmpty() || !arena.getSpectators().isEmpty() || ultimateGames.getQueueManager().getQueueSize(arena) > 0
+                || map.getStandbyCopies() <= (ready == null ? 0 : ready.size())) {
+            if (arena.getStatus() == ArenaStatus.RESETTING) {
+                arena.setStatus(ArenaStatus.ARENA_STOPPED);
+                ultimateGames.getArenaManager().openArena(arena);
+            }
+            return;
+        }
+        if (arena.getStatus() == ArenaStatus.OPEN) {
+            ultimateGames.getArenaManager().stopArena(arena);
+        } else if (arena.getStatus() == ArenaStatus.RESETTING) {
+            arena.setStatus(ArenaStatus.ARENA_STOPPED);
+        }
+        if (arena.getStatus() == ArenaStatus.ARENA_STOPPED) {
+            addToPool(map, arena);
+        }
+    }
+
+    /**
+     * Creates instances for games whose matchmaking queue outgrew their open arenas, tops up the standby pools and retires idle instances.
+     */
+    @Override
+    public void run() {
+        Map<Game, List<Arena>> templates = new HashMap<Game, List<Arena>>();
+        for (Arena arena : ultimateGames.getArenaManager().getArenas()) {
+            if (!arena.isInstance() && arena.getStandbyCopies() > 0) {
+                topUpStandby(arena);
+            }
+            if (arena.isTemplate()) {
+                List<Arena> gameTemplates = templates.get(arena.getGame());
+                if (gameTemplates == null) {
+                    gameTemplates = new ArrayList<Arena>();
+                    templates.put(arena.getGame(), gameTemplates);
+                }
+                gameTemplates.add(arena);
+            }
+        }
+        for (Map.Entry<Game, List<Arena>> entry : templates.entrySet()) {
+            scale(entry.getKey(), entry.getValue());
+        }
+        retireIdleInstances();
+    }
+
+    /**
+     * Stops creating and retiring instances. Instances that are still being copied are abandoned and their copies dropped,
+     * so they aren't finished when the pending rollbacks are.
+     */
+    public void stop() {
+        if (taskId != null) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = null;
+        }
+        for (Arena instance : building) {
+            ultimateGames.getRollbackManager().cancel(instance);
+            releaseSlot(instance);
+        }
+        building.clear();
+        buildingStandby.clear();
+    }
+
+    /**
+     * Creates an instance of one of a game's templates if more players are waiting than its open arenas can take.
+     *
+     * @param game      The game.
+     * @param templates The game's template arenas.
+     */
+    private void scale(Game game, List<Arena> templates) {
+        int waiting = ultimateGames.getMatchmaker().getQueueSize(game);
+        if (waiting < queueThreshold) {
+            return;
+        }
+        int freeSlots = 0;
+        for (Arena arena : ultimateGames.getArenaManager().getArenasOfGame(game.getName())) {
+            if (arena.getStatus() == ArenaStatus.OPEN) {
+                freeSlots += Math.max(0, arena.getMaxPlayers() - arena.getPlayers().size());
+            }
+        }
+        for (Arena arena : building) {
+            if (arena.getGame().equals(game)) {
+                freeSlots += arena.getMaxPlayers();
+            }
+        }
+        if (waiting - freeSlots < queueThreshold) {
+            return;
+        }
+        Arena leastInstanced = null;
+        int fewestInstances = maxInstances;
+        for (Arena template : templates) {
+            if (!isClean(template)) {
+                continue;
+            }
+            int instanceCount = countInstances(template);
+            if (instanceCount < fewestInstances) {
+                leastInstanced = template;
+                fewestInstances = instanceCount;
+            }
+        }
+        if (leastInstanced != null) {
+            createInstance(leastInstanced, false);
+        }
+    }
+
+    /**
+     * Starts copying an arena until its standby pool will hold Standby-Copies ready copies.<br>
+     * Nothing is copied while the arena isn't clean, so copies never carry the damage of a match.
+     *
+     * @param map The arena.
+     */
+    private void topUpStandby(Arena map) {
+        if (!isClean(map)) {
+            return;
+        }
+        int pending = standby.containsKey(map) ? standby.get(map).size() : 0;
+        for (Arena arena : buildingStandby) {
+            if (map.equals(arena.getTemplate())) {
+                pending++;
+            }
+        }
+        for (; pending < map.getStandbyCopies() && countInstances(map) < maxInstances; pending++) {
+            if (!createInstance(map, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds a ready copy to the standby pool of its map.
+     *
+     * @param map  The arena the copy was made from.
+     * @param copy The copy.
+     */
+    private void addToPool(Arena map, Arena copy) {
+        LinkedList<Arena> ready = standby.get(map);
+        if (ready == null) {
+            ready = new LinkedList<Arena>();
+            standby.put(map, ready);
+        }
+        if (!ready.contains(copy)) {
+            ready.add(copy);
+            idleTicks.remove(copy);
+        }
+    }
+
+    /**
+     * Checks if an instance is waiting in a standby pool.
+     *
+     * @param instance The instance.
+     * @return True if the instance is on standby, else false.
+     */
+    private boolean isOnStandby(Arena instance) {
+        LinkedList<Arena> ready = standby.get(instance.getTemplate());
+        return ready != null && ready.contains(instance);
+    }
+
+    /**
+     * Checks if an arena's blocks can be copied, which is when it is stopped or open with no changes to roll back.
+     *
+     * @param map The arena.
+     * @return True if the arena is clean, else false.
+     */
+    private boolean isClean(Arena map) {
+        ArenaStatus status = map.getStatus();
+        RollbackManager rollbackManager = ultimateGames.getRollbackManager();
+        return (status == ArenaStatus.ARENA_STOPPED || status == ArenaStatus.OPEN) && !rollbackManager.hasChanges(map) && !rollbackManager.isRollingBack(map);
+    }
+
+    /**
+     * Counts the instances of a template, including those still being copied.
+     *
+     * @param template The template arena.
+     * @return The amount of instances.
+     */
+    private int countInstances(Arena template) {
+        int count = instances.containsKey(template) ? instances.get(template).size() : 0;
+        for (Arena arena : building) {
+            if (template.equals(arena.getTemplate())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Starts copying a template arena to a free slot in the instance world.
+     *
+     * @param template    The template arena.
+     * @param standbyCopy If the instance should wait in the standby pool instead of opening.
+     * @return True if the copy was started, else false.
+     */
+    private boolean createInstance(final Arena template, final boolean standbyCopy) {
+        Region region = template.getRegion();
+        World world = ultimateGames.getArenaWorldManager().loadWorld(worldName);
+        if (world == null || !ultimateGames.getArenaWorldManager().loadWorld(template)) {
+            return false;
+        }
+        int minX = (int) Math.floor(region.getMinX());
+        int minZ = (int) Math.floor(region.getMinZ());
+        if (Math.floor(region.getMaxX()) - minX + CHUNK_SIZE > spacing || Math.floor(region.getMaxZ()) - minZ + CHUNK_SIZE > spacing) {
+            ultimateGames.getMessenger().log(Level.WARNING, "Arena " + template.getName() + " of game " + template.getGame().getName() + " is too large for the instance spacing");
+            return false;
+        }
+        int slot = usedSlots.nextClearBit(0);
+        final int offsetX = (slot % GRID_WIDTH) * spacing - (minX >> 4 << 4);
+        final int offsetZ = (slot / GRID_WIDTH) * spacing - (minZ >> 4 << 4);
+        usedSlots.set(slot);
+        Region instanceRegion = new Region(world, region.getMinX() + offsetX, region.getMaxX() + offsetX, region.getMinZ() + offsetZ, region.getMaxZ() + offsetZ);
+        Arena instance = new Arena(ultimateGames, template, template.getName() + INSTANCE_SEPARATOR + (slot + 1), instanceRegion);
+        building.add(instance);
+        if (standbyCopy) {
+            buildingStandby.add(instance);
+        }
+        slots.put(instance, slot);
+        ultimateGames.getMessenger().debug("Creating instance " + instance.getName() + " of game " + template.getGame().getName());
+        // Slots are reused, so whatever a previous instance, possibly from an earlier run, left around the new copy is cleared first
+        int slotChunkX = (slot % GRID_WIDTH) * spacing >> 4;
+        int slotChunkZ = (slot / GRID_WIDTH) * spacing >> 4;
+        int slotChunks = spacing >> 4;
+        RegionClear clear = new RegionClear(world, slotChunkX, slotChunkX + slotChunks - 1, slotChunkZ, slotChunkZ + slotChunks - 1,
+                minX + offsetX, (int) Math.floor(region.getMaxX()) + offsetX, minZ + offsetZ, (int) Math.floor(region.getMaxZ()) + offsetZ);
+        ultimateGames.getRollbackManager().restore(instance, new SequentialRestore(clear, new RegionCopy(region, world, offsetX, offsetZ)), new RollbackManager.RollbackCallback() {
+            @Override
+            public void onRollback(Arena arena, boolean success) {
+                finishInstance(template, arena, offsetX, offsetZ, success);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Registers an instance once its blocks are copied, then opens it or adds it to the standby pool.
+     *
+     * @param template The template arena.
+     * @param instance The instance.
+     * @param offsetX  The x offset of the instance.
+     * @param offsetZ  The z offset of the instance.
+     * @param success  If the blocks were copied.
+     */
+    private void finishInstance(Arena template, Arena instance, int offsetX, int offsetZ, boolean success) {
+        boolean standbyCopy = buildingStandby.remove(instance);
+        if (!building.remove(instance)) {
+            return;
+        }
+        if (!success) {
+            releaseSlot(instance);
+            return;
+        }
+        ultimateGames.getSpawnpointManager().copySpawnPoints(template, instance, offsetX, offsetZ);
+        if (!ultimateGames.getArenaManager().addArena(instance)) {
+            ultimateGames.getSpawnpointManager().removeAllSpawnPoints(instance);
+            ultimateGames.getSpawnpointManager().removeSpectatorSpawnPoint(instance);
+            releaseSlot(instance);
+            return;
+        }
+        ultimateGames.getUGSignManager().copyUGSigns(template, instance, offsetX, offsetZ);
+        List<Arena> templateInstances = instances.get(template);
+        if (templateInstances == null) {
+            templateInstances = new ArrayList<Arena>();
+            instances.put(template, templateInstances);
+        }
+        templateInstances.add(instance);
+        if (standbyCopy) {
+            addToPool(template, instance);
+        } else {
+            ultimateGames.getArenaManager().openArena(instance);
+        }
+        ultimateGames.getMessenger().debug("Created instance " + instance.getName() + " of game " + template.getGame().getName());
+    }
+
+    /**
+     * Retires the instances that have been open, stopped or left resetting without players for longer than InstanceIdleTicks. Standby copies are kept.
+     */
+    private void retireIdleInstances() {
+        for (List<Arena> templateInstances : new ArrayList<List<Arena>>(instances.values())) {
+            for (Arena instance : new ArrayList<Arena>(templateInstances)) {
+                if (isOnStandby(instance)) {
+                    continue;
+                }
+                ArenaStatus status = instance.getStatus();
+                // An instance left resetting once its rollback is done is as idle as a stopped one
+                boolean stopped = status == ArenaStatus.OPEN || status == ArenaStatus.ARENA_STOPPED || status == ArenaStatus.RESET_FAILED
+                        || (status == ArenaStatus.RESETTING && !ultimateGames.getRollbackManager().isRollingBack(instance));
+                boolean idle = stopped && instance.getPlayers().isEmpty()
+                        && instance.getSpectators().isEmpty() && ultimateGames.getQueueManager().getQueueSize(instance) == 0;
+                if (!idle) {
+                    idleTicks.remove(instance);
+                    continue;
+                }
+                int ticks = (idleTicks.containsKey(instance) ? idleTicks.get(instance) : 0) + CHECK_INTERVAL;
+                if (ticks >= maxIdleTicks) {
+                    retireInstance(instance);
+                } else {
+                    idleTicks.put(instance, ticks);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops an instance and removes it with its spawnpoints and signs.
+     *
+     * @param instance The instance.
+     */
+    private void retireInstance(Arena instance) {
+        List<Arena> templateInstances = instances.get(instance.getTemplate());
+        if (templateInstances != null) {
+            templateInstances.remove(instance);
+            if (templateInstances.isEmpty()) {
+                instances.remove(instance.getTemplate());
+            }
+        }
+        idleTicks.remove(instance);
+        ultimateGames.getArenaManager().stopArena(instance);
+        ultimateGames.getUGSignManager().removeUGSignsOfArena(instance);
+        ultimateGames.getSpawnpointManager().removeAllSpawnPoints(instance);
+        ultimateGames.getSpawnpointManager().removeSpectatorSpawnPoint(instance);
+        ultimateGames.getArenaManager().removeArena(instance);
+        releaseSlot(instance);
+        ultimateGames.getMessenger().debug("Retired instance " + instance.getName() + " of game " + instance.getGame().getName());
+    }
+
+    /**
+     * Frees the grid slot of an instance.
+     *
+     * @param instance The instance.
+     */
+    private void releaseSlot(Arena instance) {
+        Integer slot = slots.remove(instance);
+        if (slot != null) {
+            usedSlots.clear(slot);
+        }
+    }
+}
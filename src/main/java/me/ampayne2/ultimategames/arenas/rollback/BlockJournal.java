@@ -0,0 +1,270 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.arenas.rollback;
+
+import me.ampayne2.ultimategames.utils.BlockKey;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Chest;
+import org.bukkit.block.Sign;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A journal of the original state of every block changed in an arena.<br>
+ * Only the first change of each block is recorded. Entries are kept in primitive arrays keyed by packed coordinates,
+ * with an open addressing set of the recorded coordinates so repeated changes cost a single probe.
+ * The text of signs and the contents of containers are kept separately for the few entries that have them.
+ */
+public class BlockJournal {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final long EMPTY = Long.MIN_VALUE;
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] types = new int[INITIAL_CAPACITY];
+    private byte[] data = new byte[INITIAL_CAPACITY];
+    private final Map<Integer, Object> contents = new HashMap<Integer, Object>();
+    private int size = 0;
+    private long[] recorded = newTable(INITIAL_CAPACITY * 2);
+    private int replayIndex = -1;
+
+    /**
+     * Records the original state of a block, if the block hasn't been recorded yet.
+     *
+     * @param state The block's original state.
+     * @return True if the block was recorded, false if it was already recorded.
+     */
+    @SuppressWarnings("deprecation")
+    public boolean record(BlockState state) {
+        long key = BlockKey.pack(state.getX(), state.getY(), state.getZ());
+        if (!markRecorded(key)) {
+            return false;
+        }
+        append(key, state.getTypeId(), state.getRawData(), getContents(state));
+        return true;
+    }
+
+    /**
+     * Copies the entries a snapshot restore leaves unrestored: the blocks outside of the snapshot's bounds,
+     * and the signs and containers whose text or contents the snapshot doesn't hold.
+     *
+     * @param snapshot The snapshot restore.
+     * @return The journal of the remaining entries, in the same order.
+     */
+    public BlockJournal remainderOf(SnapshotRestore snapshot) {
+        BlockJournal remainder = new BlockJournal();
+        for (int i = 0; i < size; i++) {
+            long key = keys[i];
+            Object blockContents = contents.get(i);
+            if (blockContents != null || !snapshot.contains(BlockKey.getX(key), BlockKey.getY(key), BlockKey.getZ(key))) {
+                remainder.markRecorded(key);
+                remainder.append(key, types[i], data[i], blockContents);
+            }
+        }
+        return remainder;
+    }
+
+    /**
+     * Gets the amount of blocks recorded.
+     *
+     * @return The amount of blocks.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the journal has blocks left to replay.
+     *
+     * @return True if there are blocks left to replay, else false.
+     */
+    public boolean hasRemaining() {
+        return replayIndex >= 0;
+    }
+
+    /**
+     * Starts replaying the journal from its most recent entry.
+     */
+    public void startReplay() {
+        replayIndex = size - 1;
+    }
+
+    /**
+     * Restores recorded blocks, most recent first.
+     *
+     * @param world  The world of the blocks.
+     * @param amount The maximum amount of blocks to restore.
+     * @return The amount of blocks restored.
+     */
+    @SuppressWarnings("deprecation")
+    public int replay(World world, int amount) {
+        int restored = 0;
+        while (replayIndex >= 0 && restored < amount) {
+            long key = keys[replayIndex];
+            Block block = world.getBlockAt(BlockKey.getX(key), BlockKey.getY(key), BlockKey.getZ(key));
+            block.setTypeIdAndData(types[replayIndex], data[replayIndex], false);
+            Object blockContents = contents.get(replayIndex);
+            if (blockContents != null) {
+                setContents(block.getState(), blockContents);
+            }
+            replayIndex--;
+            restored++;
+        }
+        return restored;
+    }
+
+    /**
+     * Appends an entry to the journal.
+     *
+     * @param key           The block's packed coordinates.
+     * @param typeId        The block's original type id.
+     * @param blockData     The block's original data.
+     * @param blockContents The block's original sign text or container contents. Null if it has neither.
+     */
+    private void append(long key, int typeId, byte blockData, Object blockContents) {
+        if (size == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            types = Arrays.copyOf(types, capacity);
+            data = Arrays.copyOf(data, capacity);
+        }
+        keys[size] = key;
+        types[size] = typeId;
+        data[size] = blockData;
+        if (blockContents != null) {
+            contents.put(size, blockContents);
+        }
+        size++;
+    }
+
+    /**
+     * Copies the sign text or container contents of a block state.
+     *
+     * @param state The block state.
+     * @return The sign's lines or the container's items. Null if the block has neither.
+     */
+    private static Object getContents(BlockState state) {
+        if (state instanceof Sign) {
+            return ((Sign) state).getLines().clone();
+        }
+        ItemStack[] items;
+        if (state instanceof Chest) {
+            items = ((Chest) state).getBlockInventory().getContents();
+        } else if (state instanceof InventoryHolder) {
+            items = ((InventoryHolder) state).getInventory().getContents();
+        } else {
+            return null;
+        }
+        ItemStack[] copy = new ItemStack[items.length];
+        for (int i = 0; i < items.length; i++) {
+            copy[i] = items[i] == null ? null : items[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Restores the sign text or container contents of a block.
+     *
+     * @param state    The block's restored state.
+     * @param contents The sign's lines or the container's items.
+     */
+    private static void setContents(BlockState state, Object contents) {
+        if (state instanceof Sign && contents instanceof String[]) {
+            Sign sign = (Sign) state;
+            String[] lines = (String[]) contents;
+            for (int i = 0; i < lines.length; i++) {
+                sign.setLine(i, lines[i]);
+            }
+            sign.update(true, false);
+        } else if (contents instanceof ItemStack[]) {
+            ItemStack[] items = (ItemStack[]) contents;
+            if (state instanceof Chest) {
+                ((Chest) state).getBlockInventory().setContents(items);
+            } else if (state instanceof InventoryHolder) {
+                ((InventoryHolder) state).getInventory().setContents(items);
+            }
+        }
+    }
+
+    /**
+     * Adds a key to the set of recorded blocks.
+     *
+     * @param key The packed coordinates.
+     * @return True if the key was added, false if it was already in the set.
+     */
+    private boolean markRecorded(long key) {
+        if ((size + 1) * 2 > recorded.length) {
+            long[] old = recorded;
+            recorded = newTable(old.length * 2);
+            for (long oldKey : old) {
+                if (oldKey != EMPTY) {
+                    insert(recorded, oldKey);
+                }
+            }
+        }
+        return insert(recorded, key);
+    }
+
+    /**
+     * Inserts a key into an open addressing table.
+     *
+     * @param table The table.
+     * @param key   The key.
+     * @return True if the key was inserted, false if it was already in the table.
+     */
+    private static boolean insert(long[] table, long key) {
+        int mask = table.length - 1;
+        int index = hash(key) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == key) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = key;
+        return true;
+    }
+
+    /**
+     * Spreads the bits of a key for table indexing.
+     *
+     * @param key The key.
+     * @return The hash.
+     */
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Creates an empty open addressing table.
+     *
+     * @param capacity The table's capacity. Must be a power of two.
+     * @return The table.
+     */
+    private static long[] newTable(int capacity) {
+        long[] table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+}
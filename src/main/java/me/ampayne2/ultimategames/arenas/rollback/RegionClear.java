@@ -0,0 +1,147 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.arenas.rollback;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.inventory.InventoryHolder;
+
+/**
+ * Clears the blocks of an area of chunks to air, except for the columns of a region that is kept.<br>
+ * Chunks that were never generated and empty chunk sections are skipped, so clearing an empty area only costs a check per chunk.
+ * Containers are emptied before they are cleared so their items don't drop.
+ */
+public class RegionClear implements RollbackTask {
+    private static final int COMPARES_PER_UNIT = 64;
+    private static final int SECTION_HEIGHT = 16;
+    private final World world;
+    private final int minChunkZ;
+    private final int maxChunkX;
+    private final int maxChunkZ;
+    private final int keepMinX;
+    private final int keepMaxX;
+    private final int keepMinZ;
+    private final int keepMaxZ;
+    private final int blockCount;
+    private int chunkX;
+    private int chunkZ;
+    private ChunkSnapshot chunk;
+    private int blockIndex;
+
+    /**
+     * Creates a new RegionClear.
+     *
+     * @param world     The world.
+     * @param minChunkX The lowest chunk x coordinate of the area.
+     * @param maxChunkX The highest chunk x coordinate of the area.
+     * @param minChunkZ The lowest chunk z coordinate of the area.
+     * @param maxChunkZ The highest chunk z coordinate of the area.
+     * @param keepMinX  The lowest x coordinate of the columns to keep.
+     * @param keepMaxX  The highest x coordinate of the columns to keep.
+     * @param keepMinZ  The lowest z coordinate of the columns to keep.
+     * @param keepMaxZ  The highest z coordinate of the columns to keep.
+     */
+    public RegionClear(World world, int minChunkX, int maxChunkX, int minChunkZ, int maxChunkZ, int keepMinX, int keepMaxX, int keepMinZ, int keepMaxZ) {
+        this.world = world;
+        this.minChunkZ = minChunkZ;
+        this.maxChunkX = maxChunkX;
+        this.maxChunkZ = maxChunkZ;
+        this.keepMinX = keepMinX;
+        this.keepMaxX = keepMaxX;
+        this.keepMinZ = keepMinZ;
+        this.keepMaxZ = keepMaxZ;
+        this.blockCount = 16 * 16 * world.getMaxHeight();
+        this.chunkX = minChunkX;
+        this.chunkZ = minChunkZ;
+    }
+
+    @Override
+    public int restore(int budget) {
+        int used = 0;
+        int compared = 0;
+        while (used < budget && !isFinished()) {
+            if (chunk == null) {
+                nextChunk();
+                used++;
+                continue;
+            }
+            while (blockIndex < blockCount && used < budget) {
+                int y = blockIndex >> 8;
+                if ((blockIndex & ((SECTION_HEIGHT << 8) - 1)) == 0 && chunk.isSectionEmpty(y / SECTION_HEIGHT)) {
+                    blockIndex += SECTION_HEIGHT << 8;
+                    used++;
+                    continue;
+                }
+                int localZ = (blockIndex >> 4) & 15;
+                int localX = blockIndex & 15;
+                blockIndex++;
+                int x = (chunk.getX() << 4) + localX;
+                int z = (chunk.getZ() << 4) + localZ;
+                @SuppressWarnings("deprecation")
+                boolean empty = chunk.getBlockTypeId(localX, y, localZ) == 0;
+                if (!empty && (x < keepMinX || x > keepMaxX || z < keepMinZ || z > keepMaxZ)) {
+                    clear(world.getBlockAt(x, y, z));
+                    used++;
+                } else if (++compared == COMPARES_PER_UNIT) {
+                    compared = 0;
+                    used++;
+                }
+            }
+            if (blockIndex >= blockCount) {
+                chunk = null;
+            }
+        }
+        return used;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return chunk == null && chunkX > maxChunkX;
+    }
+
+    /**
+     * Takes a snapshot of the next chunk, if it was ever generated.
+     */
+    private void nextChunk() {
+        if (world.loadChunk(chunkX, chunkZ, false)) {
+            chunk = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot();
+            blockIndex = 0;
+        }
+        if (++chunkZ > maxChunkZ) {
+            chunkZ = minChunkZ;
+            chunkX++;
+        }
+    }
+
+    /**
+     * Clears a block to air, emptying it first if it is a container.
+     *
+     * @param block The block.
+     */
+    @SuppressWarnings("deprecation")
+    private void clear(Block block) {
+        BlockState state = block.getState();
+        if (state instanceof InventoryHolder) {
+            ((InventoryHolder) state).getInventory().clear();
+        }
+        block.setTypeIdAndData(0, (byte) 0, false);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.arenas.rollback;
+
+import me.ampayne2.ultimategames.arenas.Region;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Sign;
+
+/**
+ * Copies the blocks of a region to another place, one chunk at a time.<br>
+ * The offset must be a multiple of 16 so every source chunk lines up with a target chunk.
+ * Only blocks that differ are written, and the text of signs is copied along with them.
+ */
+public class RegionCopy implements RollbackTask {
+    private static final int COMPARES_PER_UNIT = 64;
+    private final World sourceWorld;
+    private final World targetWorld;
+    private final int offsetX;
+    private final int offsetZ;
+    private final int minX;
+    private final int maxX;
+    private final int minZ;
+    private final int maxZ;
+    private final int maxChunkX;
+    private final int minChunkZ;
+    private final int maxChunkZ;
+    private final int height;
+    private int chunkX;
+    private int chunkZ;
+    private ChunkSnapshot source;
+    private ChunkSnapshot target;
+    private int x0;
+    private int width;
+    private int z0;
+    private int depth;
+    private int blockIndex;
+    private int blockCount;
+
+    /**
+     * Creates a new RegionCopy.
+     *
+     * @param region      The region to copy.
+     * @param targetWorld The world to copy the region to.
+     * @param offsetX     The x offset of the copy, a multiple of 16.
+     * @param offsetZ     The z offset of the copy, a multiple of 16.
+     */
+    public RegionCopy(Region region, World targetWorld, int offsetX, int offsetZ) {
+        if ((offsetX & 15) != 0 || (offsetZ & 15) != 0) {
+            throw new IllegalArgumentException("The offset must be chunk aligned");
+        }
+        this.sourceWorld = region.getWorld();
+        this.targetWorld = targetWorld;
+        this.offsetX = offsetX;
+        this.offsetZ = offsetZ;
+        this.minX = (int) Math.floor(region.getMinX());
+        this.maxX = (int) Math.floor(region.getMaxX());
+        this.minZ = (int) Math.floor(region.getMinZ());
+        this.maxZ = (int) Math.floor(region.getMaxZ());
+        this.maxChunkX = maxX >> 4;
+        this.minChunkZ = minZ >> 4;
+        this.maxChunkZ = maxZ >> 4;
+        this.height = Math.min(sourceWorld.getMaxHeight(), targetWorld.getMaxHeight());
+        this.chunkX = minX >> 4;
+        this.chunkZ = minChunkZ;
+    }
+
+    @Override
+    public int restore(int budget) {
+        int used = 0;
+        int compared = 0;
+        while (used < budget && !isFinished()) {
+            if (source == null) {
+                nextChunk();
+                used++;
+                continue;
+            }
+            while (blockIndex < blockCount && used < budget) {
+                int y = blockIndex / (width * depth);
+                int z = z0 + (blockIndex / width) % depth;
+                int x = x0 + blockIndex % width;
+                blockIndex++;
+                @SuppressWarnings("deprecation")
+                int typeId = source.getBlockTypeId(x & 15, y, z & 15);
+                int data = source.getBlockData(x & 15, y, z & 15);
+                @SuppressWarnings("deprecation")
+                boolean same = target.getBlockTypeId(x & 15, y, z & 15) == typeId && target.getBlockData(x & 15, y, z & 15) == data;
+                if (!same) {
+                    paste(x, y, z, typeId, data);
+                    used++;
+                } else if (++compared == COMPARES_PER_UNIT) {
+                    compared = 0;
+                    used++;
+                }
+            }
+            if (blockIndex == blockCount) {
+                source = null;
+                target = null;
+                if (++chunkZ > maxChunkZ) {
+                    chunkZ = minChunkZ;
+                    chunkX++;
+                }
+            }
+        }
+        return used;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return source == null && chunkX > maxChunkX;
+    }
+
+    /**
+     * Takes snapshots of the next source chunk and the target chunk it is copied to.
+     */
+    private void nextChunk() {
+        source = sourceWorld.getChunkAt(chunkX, chunkZ).getChunkSnapshot();
+        target = targetWorld.getChunkAt(chunkX + (offsetX >> 4), chunkZ + (offsetZ >> 4)).getChunkSnapshot();
+        x0 = Math.max(minX, chunkX << 4);
+        width = Math.min(maxX, (chunkX << 4) + 15) - x0 + 1;
+        z0 = Math.max(minZ, chunkZ << 4);
+        depth = Math.min(maxZ, (chunkZ << 4) + 15) - z0 + 1;
+        blockIndex = 0;
+        blockCount = width * depth * height;
+    }
+
+    /**
+     * Copies a block to the target world, including the text of signs.
+     *
+     * @param x      The source block's x coordinate.
+     * @param y      The source block's y coordinate.
+     * @param z      The source block's z coordinate.
+     * @param typeId The source block's type id.
+     * @param data   The source block's data.
+     */
+    @SuppressWarnings("deprecation")
+    private void paste(int x, int y, int z, int typeId, int data) {
+        Block block = targetWorld.getBlockAt(x + offsetX, y, z + offsetZ);
+        block.setTypeIdAndData(typeId, (byte) data, false);
+        if (typeId == Material.SIGN_POST.getId() || typeId == Material.WALL_SIGN.getId()) {
+            BlockState sourceState = sourceWorld.getBlockAt(x, y, z).getState();
+            BlockState targetState = block.getState();
+            if (sourceState instanceof Sign && targetState instanceof Sign) {
+                String[] lines = ((Sign) sourceState).getLines();
+                for (int i = 0; i < lines.length; i++) {
+                    ((Sign) targetState).setLine(i, lines[i]);
+                }
+                targetState.update();
+            }
+        }
+    }
+}
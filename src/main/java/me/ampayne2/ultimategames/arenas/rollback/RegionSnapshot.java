@@ -0,0 +1,278 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.arenas.rollback;
+
+import me.ampayne2.ultimategames.arenas.Region;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A copy of the blocks of a region, written to a compact binary file.<br>
+ * The file has a header with the region's bounds, a table with the position, hash and size of each chunk's data,
+ * and then the data of each chunk. A chunk's data is one palette of block types per 16 block high section,
+ * followed by run-length encoded palette indices of the blocks in y, z, x order.
+ */
+public class RegionSnapshot {
+    static final int MAGIC = 0x55475353;
+    static final int VERSION = 1;
+    static final int SECTION_HEIGHT = 16;
+    static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int MAX_RUN = 4096;
+    private final int minX;
+    private final int maxX;
+    private final int minY;
+    private final int maxY;
+    private final int minZ;
+    private final int maxZ;
+    private final List<ChunkSnapshot> chunks;
+
+    private RegionSnapshot(int minX, int maxX, int minY, int maxY, int minZ, int maxZ, List<ChunkSnapshot> chunks) {
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+        this.minZ = minZ;
+        this.maxZ = maxZ;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Captures the blocks of a region. Must be called on the main thread, the snapshot can then be written from any thread.
+     *
+     * @param region The region.
+     * @param minY   The lowest y to capture.
+     * @param maxY   The highest y to capture.
+     * @return The snapshot.
+     * @throws IllegalArgumentException If the y range is empty once clamped to the world's height.
+     */
+    public static RegionSnapshot capture(Region region, int minY, int maxY) {
+        World world = region.getWorld();
+        int minX = (int) Math.floor(region.getMinX());
+        int maxX = (int) Math.floor(region.getMaxX());
+        int minZ = (int) Math.floor(region.getMinZ());
+        int maxZ = (int) Math.floor(region.getMaxZ());
+        minY = Math.max(0, minY);
+        maxY = Math.min(world.getMaxHeight() - 1, maxY);
+        if (minY > maxY) {
+            throw new IllegalArgumentException("The y range " + minY + " to " + maxY + " is outside of the world's height");
+        }
+        List<ChunkSnapshot> chunks = new ArrayList<ChunkSnapshot>();
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                chunks.add(world.getChunkAt(chunkX, chunkZ).getChunkSnapshot());
+            }
+        }
+        return new RegionSnapshot(minX, maxX, minY, maxY, minZ, maxZ, chunks);
+    }
+
+    /**
+     * Writes the snapshot to a file. The file is replaced only once it is completely written.
+     *
+     * @param file The file.
+     * @throws IOException If the file couldn't be written.
+     */
+    public void write(File file) throws IOException {
+        List<byte[]> chunkData = new ArrayList<byte[]>(chunks.size());
+        for (ChunkSnapshot chunk : chunks) {
+            chunkData.add(encode(chunk));
+        }
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        File tempFile = new File(file.getPath() + ".tmp");
+        DataOutputStream out = null;
+        FileOutputStream fileOut = null;
+        try {
+            fileOut = new FileOutputStream(tempFile);
+            out = new DataOutputStream(new BufferedOutputStream(fileOut));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(minX);
+            out.writeInt(maxX);
+            out.writeInt(minY);
+            out.writeInt(maxY);
+            out.writeInt(minZ);
+            out.writeInt(maxZ);
+            out.writeInt(chunks.size());
+            long offset = headerSize(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                ChunkSnapshot chunk = chunks.get(i);
+                out.writeInt(chunk.getX());
+                out.writeInt(chunk.getZ());
+                out.writeLong(hash(chunk, minX, maxX, minY, maxY, minZ, maxZ));
+                out.writeLong(offset);
+                out.writeInt(chunkData.get(i).length);
+                offset += chunkData.get(i).length;
+            }
+            for (byte[] data : chunkData) {
+                out.write(data);
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        } finally {
+            if (out != null) {
+                out.close();
+            } else if (fileOut != null) {
+                fileOut.close();
+            }
+        }
+        if (!tempFile.renameTo(file) && !(file.delete() && tempFile.renameTo(file))) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    /**
+     * Encodes the blocks of a chunk that are inside the snapshot's bounds.
+     *
+     * @param chunk The chunk.
+     * @return The encoded blocks.
+     * @throws IOException Never, the blocks are written to memory.
+     */
+    @SuppressWarnings("deprecation")
+    private byte[] encode(ChunkSnapshot chunk) throws IOException {
+        int x0 = Math.max(minX, chunk.getX() << 4) & 15;
+        int x1 = Math.min(maxX, (chunk.getX() << 4) + 15) & 15;
+        int z0 = Math.max(minZ, chunk.getZ() << 4) & 15;
+        int z1 = Math.min(maxZ, (chunk.getZ() << 4) + 15) & 15;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int sectionY = minY; sectionY <= maxY; sectionY = (sectionY & ~(SECTION_HEIGHT - 1)) + SECTION_HEIGHT) {
+            int sectionMaxY = Math.min(maxY, (sectionY & ~(SECTION_HEIGHT - 1)) + SECTION_HEIGHT - 1);
+            List<Integer> palette = new ArrayList<Integer>();
+            Map<Integer, Integer> paletteIndexes = new HashMap<Integer, Integer>();
+            List<int[]> runs = new ArrayList<int[]>();
+            int runIndex = -1;
+            int runLength = 0;
+            for (int y = sectionY; y <= sectionMaxY; y++) {
+                for (int z = z0; z <= z1; z++) {
+                    for (int x = x0; x <= x1; x++) {
+                        Integer block = pack(chunk.getBlockTypeId(x, y, z), chunk.getBlockData(x, y, z));
+                        Integer index = paletteIndexes.get(block);
+                        if (index == null) {
+                            index = palette.size();
+                            palette.add(block);
+                            paletteIndexes.put(block, index);
+                        }
+                        if (index == runIndex && runLength < MAX_RUN) {
+                            runLength++;
+                        } else {
+                            if (runLength > 0) {
+                                runs.add(new int[]{runIndex, runLength});
+                            }
+                            runIndex = index;
+                            runLength = 1;
+                        }
+                    }
+                }
+            }
+            runs.add(new int[]{runIndex, runLength});
+            out.writeShort(palette.size());
+            for (Integer block : palette) {
+                out.writeInt(block);
+            }
+            out.writeInt(runs.size());
+            for (int[] run : runs) {
+                out.writeShort(run[0]);
+                out.writeShort(run[1] - 1);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Hashes the blocks of a chunk that are inside a snapshot's bounds, in y, z, x order.
+     *
+     * @param chunk The chunk.
+     * @param minX  The snapshot's minimum x.
+     * @param maxX  The snapshot's maximum x.
+     * @param minY  The snapshot's minimum y.
+     * @param maxY  The snapshot's maximum y.
+     * @param minZ  The snapshot's minimum z.
+     * @param maxZ  The snapshot's maximum z.
+     * @return The hash.
+     */
+    static long hash(ChunkSnapshot chunk, int minX, int maxX, int minY, int maxY, int minZ, int maxZ) {
+        return hashLayers(FNV_OFFSET, chunk, minX, maxX, minY, maxY, minZ, maxZ);
+    }
+
+    /**
+     * Continues a hash over layers of the blocks of a chunk that are inside a snapshot's bounds, in y, z, x order.<br>
+     * Hashing a chunk's layers in several calls, each continuing the last one's hash, gives the same hash as hashing them at once.
+     *
+     * @param hash  The hash so far. FNV_OFFSET to start a new hash.
+     * @param chunk The chunk.
+     * @param minX  The snapshot's minimum x.
+     * @param maxX  The snapshot's maximum x.
+     * @param fromY The first layer to hash.
+     * @param toY   The last layer to hash.
+     * @param minZ  The snapshot's minimum z.
+     * @param maxZ  The snapshot's maximum z.
+     * @return The hash.
+     */
+    @SuppressWarnings("deprecation")
+    static long hashLayers(long hash, ChunkSnapshot chunk, int minX, int maxX, int fromY, int toY, int minZ, int maxZ) {
+        int x0 = Math.max(minX, chunk.getX() << 4) & 15;
+        int x1 = Math.min(maxX, (chunk.getX() << 4) + 15) & 15;
+        int z0 = Math.max(minZ, chunk.getZ() << 4) & 15;
+        int z1 = Math.min(maxZ, (chunk.getZ() << 4) + 15) & 15;
+        for (int y = fromY; y <= toY; y++) {
+            for (int z = z0; z <= z1; z++) {
+                for (int x = x0; x <= x1; x++) {
+                    hash = (hash ^ pack(chunk.getBlockTypeId(x, y, z), chunk.getBlockData(x, y, z))) * FNV_PRIME;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Packs a block's type id and data into one value.
+     *
+     * @param typeId The block's type id.
+     * @param data   The block's data.
+     * @return The packed block.
+     */
+    static int pack(int typeId, int data) {
+        return (typeId << 4) | (data & 15);
+    }
+
+    /**
+     * Gets the size of a snapshot file's header and chunk table.
+     *
+     * @param chunkCount The amount of chunks.
+     * @return The size in bytes.
+     */
+    static long headerSize(int chunkCount) {
+        return 9 * 4 + (long) chunkCount * (4 + 4 + 8 + 8 + 4);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.arenas.rollback;
+
+import me.ampayne2.ultimategames.utils.UGUtils;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+
+/**
+ * Records the block changes of running arenas for the {@link RollbackManager}.<br>
+ * Listens at MONITOR so only changes that actually happen are recorded.
+ */
+public class RollbackListener implements Listener {
+    private final RollbackManager rollbackManager;
+    private static final BlockFace[] FACES = new BlockFace[]{BlockFace.UP, BlockFace.NORTH, BlockFace.EAST, BlockFace.SOUTH, BlockFace.WEST, BlockFace.DOWN};
+
+    /**
+     * Creates a new RollbackListener.
+     *
+     * @param rollbackManager The RollbackManager to record changes in.
+     */
+    public RollbackListener(RollbackManager rollbackManager) {
+        this.rollbackManager = rollbackManager;
+    }
+
+    /**
+     * Records the block replaced by a placed block.
+     *
+     * @param event The event thrown when a block is placed.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        rollbackManager.recordChange(event.getBlockReplacedState());
+    }
+
+    /**
+     * Records a broken block and the blocks that break or fall with it.
+     *
+     * @param event The event thrown when a block is broken.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        rollbackManager.recordChange(event.getBlock());
+        recordDependents(event.getBlock());
+    }
+
+    /**
+     * Records the blocks destroyed by an explosion and the blocks that break or fall with them.
+     *
+     * @param event The event thrown when an entity explodes.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            rollbackManager.recordChange(block);
+        }
+        for (Block block : event.blockList()) {
+            recordDependents(block);
+        }
+    }
+
+    /**
+     * Records a block that fades, such as melting ice or snow.
+     *
+     * @param event The event thrown when a block fades.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFade(BlockFadeEvent event) {
+        recordIfArenaChunk(event.getBlock());
+    }
+
+    /**
+     * Records a block that liquid flows into.
+     *
+     * @param event The event thrown when liquid flows or a dragon egg teleports.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFromTo(BlockFromToEvent event) {
+        recordIfArenaChunk(event.getToBlock());
+    }
+
+    /**
+     * Records a block that burns away.
+     *
+     * @param event The event thrown when a block burns.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        recordIfArenaChunk(event.getBlock());
+    }
+
+    /**
+     * Records the block a bucket's liquid is placed in.
+     *
+     * @param event The event thrown when a bucket is emptied.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerBucketEmpty(PlayerBucketEmptyEvent event) {
+        rollbackManager.recordChange(event.getBlockClicked().getRelative(event.getBlockFace()));
+    }
+
+    /**
+     * Records the liquid block a bucket is filled from.
+     *
+     * @param event The event thrown when a bucket is filled.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerBucketFill(PlayerBucketFillEvent event) {
+        Block clicked = event.getBlockClicked();
+        rollbackManager.recordChange(clicked);
+        rollbackManager.recordChange(clicked.getRelative(event.getBlockFace()));
+    }
+
+    /**
+     * Records a block change, skipping the arena lookup for blocks in chunks no arena overlaps.<br>
+     * Used for the events that fire constantly outside of arenas.
+     *
+     * @param block The block.
+     */
+    private void recordIfArenaChunk(Block block) {
+        if (rollbackManager.isRecording(block.getWorld(), block.getX() >> 4, block.getZ() >> 4)) {
+            rollbackManager.recordChange(block);
+        }
+    }
+
+    /**
+     * Records the blocks that physics will break or drop once a block is removed,
+     * such as torches, signs and buttons attached to it or sand, rails and plants on top of it.
+     *
+     * @param block The removed block.
+     */
+    private void recordDependents(Block block) {
+        for (BlockFace face : FACES) {
+            Block dependent = block.getRelative(face);
+            if (breaksWithSupport(dependent.getType()) && (face == BlockFace.UP || UGUtils.isAttachedToBlock(dependent, block))) {
+                rollbackManager.recordChange(dependent);
+                recordDependents(dependent);
+            }
+        }
+    }
+
+    /**
+     * Checks if a material breaks or falls when the block supporting it is removed.
+     *
+     * @param material The material.
+     * @return True if the material depends on its support block, else false.
+     */
+    private static boolean breaksWithSupport(Material material) {
+        switch (material) {
+            case SIGN_POST:
+            case WALL_SIGN:
+            case LADDER:
+            case SNOW:
+                return true;
+            default:
+                return UGUtils.hasPhysics(material);
+        }
+    }
+}
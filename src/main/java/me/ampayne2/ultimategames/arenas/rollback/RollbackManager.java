@@ -0,0 +1,399 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.arenas.rollback;
+
+import me.ampayne2.ultimategames.UltimateGames;
+import me.ampayne2.ultimategames.arenas.Arena;
+import me.ampayne2.ultimategames.arenas.ArenaStatus;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.command.CommandSender;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Records the blocks changed in running arenas and rolls them back when the arenas reset.<br>
+ * Rollbacks are spread over ticks, restoring at most RollbackBlocksPerTick blocks each tick.
+ * Arenas with a region snapshot are restored from the snapshot instead once more than SnapshotRestoreThreshold blocks changed,
+ * after which the journal entries the snapshot doesn't cover are replayed.
+ */
+public class RollbackManager implements Runnable {
+    private final UltimateGames ultimateGames;
+    private final Map<Arena, BlockJournal> journals = new HashMap<Arena, BlockJournal>();
+    private final Map<Arena, Rollback> rollbacks = new LinkedHashMap<Arena, Rollback>();
+    private final int blocksPerTick;
+    private final int snapshotRestoreThreshold;
+    private Integer taskId = null;
+    private boolean stopped = false;
+    private static final int DEFAULT_BLOCKS_PER_TICK = 2000;
+    private static final int DEFAULT_SNAPSHOT_RESTORE_THRESHOLD = 20000;
+    private static final String SNAPSHOT_FOLDER = "Snapshots";
+    private static final String SNAPSHOT_EXTENSION = ".ugs";
+
+    /**
+     * Creates a new RollbackManager.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     */
+    public RollbackManager(UltimateGames ultimateGames) {
+        this.ultimateGames = ultimateGames;
+        this.blocksPerTick = Math.max(1, ultimateGames.getConfig().getInt("RollbackBlocksPerTick", DEFAULT_BLOCKS_PER_TICK));
+        this.snapshotRestoreThreshold = ultimateGames.getConfig().getInt("SnapshotRestoreThreshold", DEFAULT_SNAPSHOT_RESTORE_THRESHOLD);
+        ultimateGames.getServer().getPluginManager().registerEvents(new RollbackListener(this), ultimateGames);
+    }
+
+    /**
+     * Records the original state of a block about to change, if it is in a running arena that resets after matches.
+     *
+     * @param block The block.
+     */
+    public void recordChange(Block block) {
+        Arena arena = getRecordingArena(block.getLocation());
+        if (arena != null) {
+            getJournal(arena).record(block.getState());
+        }
+    }
+
+    /**
+     * Records the original state of a block that already changed, if it is in a running arena that resets after matches.
+     *
+     * @param state The block's state before it changed.
+     */
+    public void recordChange(BlockState state) {
+        Arena arena = getRecordingArena(state.getLocation());
+        if (arena != null) {
+            getJournal(arena).record(state);
+        }
+    }
+
+    /**
+     * Checks if any arena could be recording block changes.
+     *
+     * @param world  The world.
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @return True if an arena overlaps the chunk, else false.
+     */
+    public boolean isRecording(World world, int chunkX, int chunkZ) {
+        return !ultimateGames.getArenaManager().isChunkArenaFree(world, chunkX, chunkZ);
+    }
+
+    /**
+     * Checks if an arena has recorded block changes to roll back.
+     *
+     * @param arena The arena.
+     * @return True if the arena has changes, else false.
+     */
+    public boolean hasChanges(Arena arena) {
+        BlockJournal journal = journals.get(arena);
+        return journal != null && journal.size() > 0;
+    }
+
+    /**
+     * Rolls back the recorded block changes of an arena over the next ticks.<br>
+     * The callback is run once every block is restored, or right away if the arena has no changes.
+     *
+     * @param arena    The arena.
+     * @param callback Run with true once the rollback is done, or with false if it failed.
+     */
+    public void rollback(Arena arena, RollbackCallback callback) {
+        BlockJournal journal = journals.remove(arena);
+        World world = arena.getRegion().getWorld();
+        if (journal == null || journal.size() == 0 || world == null) {
+            callback.onRollback(arena, true);
+            return;
+        }
+        RollbackTask task = null;
+        File snapshotFile = getSnapshotFile(arena);
+        if (journal.size() >= snapshotRestoreThreshold && snapshotFile.exists()) {
+            try {
+                SnapshotRestore snapshot = new SnapshotRestore(snapshotFile, world);
+                BlockJournal remainder = journal.remainderOf(snapshot);
+                if (remainder.size() == 0) {
+                    task = snapshot;
+                } else {
+                    remainder.startReplay();
+                    task = new SequentialRestore(snapshot, new JournalReplay(remainder, world));
+                }
+                ultimateGames.getMessenger().debug("Restoring arena " + arena.getName() + " of game " + arena.getGame().getName() + " from its snapshot");
+            } catch (IOException e) {
+                ultimateGames.getMessenger().log(Level.WARNING, "Could not read the snapshot of arena " + arena.getName() + " of game " + arena.getGame().getName());
+                ultimateGames.getMessenger().debug(e);
+            }
+        }
+        if (task == null) {
+            journal.startReplay();
+            task = new JournalReplay(journal, world);
+            ultimateGames.getMessenger().debug("Rolling back " + journal.size() + " blocks of arena " + arena.getName() + " of game " + arena.getGame().getName());
+        }
+        restore(arena, task, callback);
+    }
+
+    /**
+     * Runs a restore task for an arena over the next ticks, sharing the per-tick budget with rollbacks.<br>
+     * Once the manager is stopped, the task is finished right away instead.
+     *
+     * @param arena    The arena.
+     * @param task     The task.
+     * @param callback Run with true once the task is finished, or with false if it failed.
+     */
+    public void restore(Arena arena, RollbackTask task, RollbackCallback callback) {
+        Rollback rollback = new Rollback(task, callback);
+        rollbacks.put(arena, rollback);
+        if (stopped) {
+            // Nothing can be scheduled once the plugin is disabled, so the task is finished right away
+            step(arena, rollback, Integer.MAX_VALUE);
+        } else if (taskId == null) {
+            taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(ultimateGames, this, 1, 1);
+        }
+    }
+
+    /**
+     * Captures a snapshot of an arena's region and writes it to the arena's snapshot file in the background.
+     *
+     * @param arena  The arena.
+     * @param minY   The lowest y to capture.
+     * @param maxY   The highest y to capture.
+     * @param sender The sender to notify when the snapshot is saved.
+     * @throws IllegalArgumentException If the y range is empty once clamped to the world's height.
+     */
+    public void captureSnapshot(final Arena arena, int minY, int maxY, final CommandSender sender) {
+        final RegionSnapshot snapshot = RegionSnapshot.capture(arena.getRegion(), minY, maxY);
+        final File snapshotFile = getSnapshotFile(arena);
+        Bukkit.getScheduler().runTaskAsynchronously(ultimateGames, new Runnable() {
+            @Override
+            public void run() {
+                boolean saved;
+                try {
+                    snapshot.write(snapshotFile);
+                    saved = true;
+                } catch (IOException e) {
+                    ultimateGames.getMessenger().log(Level.SEVERE, "Could not write " + snapshotFile);
+                    ultimateGames.getMessenger().debug(e);
+                    saved = false;
+                }
+                final String path = saved ? "arenas.snapshotsaved" : "arenas.snapshotfailed";
+                Bukkit.getScheduler().runTask(ultimateGames, new Runnable() {
+                    @Override
+                    public void run() {
+                        ultimateGames.getMessenger().sendMessage(sender, path, arena.getName(), arena.getGame().getName());
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Gets the snapshot file of an arena.
+     *
+     * @param arena The arena.
+     * @return The snapshot file, which might not exist.
+     */
+    public File getSnapshotFile(Arena arena) {
+        return new File(new File(new File(ultimateGames.getDataFolder(), SNAPSHOT_FOLDER), arena.getGame().getName()), arena.getName() + SNAPSHOT_EXTENSION);
+    }
+
+    /**
+     * Checks if an arena has a rollback or restore in progress.
+     *
+     * @param arena The arena.
+     * @return True if a rollback is in progress, else false.
+     */
+    public boolean isRollingBack(Arena arena) {
+        return rollbacks.containsKey(arena);
+    }
+
+    /**
+     * Checks if any arena in a world has a rollback or restore in progress.
+     *
+     * @param world The world.
+     * @return True if a rollback is in progress, else false.
+     */
+    public boolean hasPendingRollbacks(World world) {
+        for (Arena arena : rollbacks.keySet()) {
+            if (arena.getRegion().getWorldName().equals(world.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops the rollback or restore in progress of an arena without finishing it. Its callback isn't run.
+     *
+     * @param arena The arena.
+     * @return True if a rollback was dropped, else false.
+     */
+    public boolean cancel(Arena arena) {
+        return rollbacks.remove(arena) != null;
+    }
+
+    /**
+     * Forgets the recorded block changes of an arena without rolling them back.
+     *
+     * @param arena The arena.
+     */
+    public void discard(Arena arena) {
+        journals.remove(arena);
+    }
+
+    /**
+     * Restores blocks of the pending rollbacks, oldest rollback first, until the tick's budget is spent.
+     */
+    @Override
+    public void run() {
+        int budget = blocksPerTick;
+        for (Map.Entry<Arena, Rollback> entry : new ArrayList<Map.Entry<Arena, Rollback>>(rollbacks.entrySet())) {
+            if (budget <= 0) {
+                break;
+            }
+            budget -= step(entry.getKey(), entry.getValue(), budget);
+        }
+        if (rollbacks.isEmpty() && taskId != null) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = null;
+        }
+    }
+
+    /**
+     * Finishes every pending rollback right away, and every rollback started from now on as soon as it is started.
+     * Used when the plugin is disabled.
+     */
+    public void stop() {
+        stopped = true;
+        if (taskId != null) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = null;
+        }
+        for (Map.Entry<Arena, Rollback> entry : new ArrayList<Map.Entry<Arena, Rollback>>(rollbacks.entrySet())) {
+            step(entry.getKey(), entry.getValue(), Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Restores blocks of a rollback and completes it once every block is restored.
+     *
+     * @param arena    The arena.
+     * @param rollback The rollback.
+     * @param amount   The maximum amount of blocks to restore.
+     * @return The amount of blocks restored.
+     */
+    private int step(Arena arena, Rollback rollback, int amount) {
+        int restored;
+        try {
+            restored = rollback.task.restore(amount);
+        } catch (Exception e) {
+            rollbacks.remove(arena);
+            ultimateGames.getMessenger().log(Level.SEVERE, "Failed to roll back arena " + arena.getName() + " of game " + arena.getGame().getName());
+            ultimateGames.getMessenger().debug(e);
+            rollback.callback.onRollback(arena, false);
+            return 0;
+        }
+        if (rollback.task.isFinished()) {
+            rollbacks.remove(arena);
+            ultimateGames.getMessenger().debug("Rolled back arena " + arena.getName() + " of game " + arena.getGame().getName());
+            rollback.callback.onRollback(arena, true);
+        }
+        return restored;
+    }
+
+    /**
+     * Gets the arena recording changes at a location.
+     *
+     * @param location The location.
+     * @return The arena. Null if the location isn't in a running arena that resets after matches.
+     */
+    private Arena getRecordingArena(Location location) {
+        Arena arena = ultimateGames.getArenaManager().getLocationArena(location);
+        return arena != null && arena.getStatus() == ArenaStatus.RUNNING && arena.resetAfterMatch() ? arena : null;
+    }
+
+    /**
+     * Gets the journal of an arena, creating it if needed.
+     *
+     * @param arena The arena.
+     * @return The journal.
+     */
+    private BlockJournal getJournal(Arena arena) {
+        BlockJournal journal = journals.get(arena);
+        if (journal == null) {
+            journal = new BlockJournal();
+            journals.put(arena, journal);
+        }
+        return journal;
+    }
+
+    /**
+     * A rollback in progress.
+     */
+    private static class Rollback {
+        private final RollbackTask task;
+        private final RollbackCallback callback;
+
+        private Rollback(RollbackTask task, RollbackCallback callback) {
+            this.task = task;
+            this.callback = callback;
+        }
+    }
+
+    /**
+     * Rolls back an arena by replaying its journal.
+     */
+    private static class JournalReplay implements RollbackTask {
+        private final BlockJournal journal;
+        private final World world;
+
+        private JournalReplay(BlockJournal journal, World world) {
+            this.journal = journal;
+            this.world = world;
+        }
+
+        @Override
+        public int restore(int budget) {
+            return journal.replay(world, budget);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return !journal.hasRemaining();
+        }
+    }
+
+    /**
+     * Called when an arena's rollback finishes.
+     */
+    public interface RollbackCallback {
+        /**
+         * Called when an arena's rollback finishes.
+         *
+         * @param arena   The arena.
+         * @param success True if every block was restored, false if the rollback failed.
+         */
+        void onRollback(Arena arena, boolean success);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.arenas.rollback;
+
+/**
+ * A rollback that restores an arena's blocks a few at a time.
+ */
+public interface RollbackTask {
+    /**
+     * Restores blocks until the budget is spent or the rollback is finished.
+     *
+     * @param budget The maximum amount of work to do, roughly one unit per block written.
+     * @return The amount of work done.
+     * @throws Exception If the rollback failed.
+     */
+    int restore(int budget) throws Exception;
+
+    /**
+     * Checks if every block has been restored.
+     *
+     * @return True if the rollback is finished, else false.
+     */
+    boolean isFinished();
+}
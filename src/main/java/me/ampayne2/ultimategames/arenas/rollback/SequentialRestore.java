@@ -0,0 +1,55 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.arenas.rollback;
+
+/**
+ * Runs two restore tasks one after the other, sharing each tick's budget.
+ */
+public class SequentialRestore implements RollbackTask {
+    private final RollbackTask first;
+    private final RollbackTask second;
+
+    /**
+     * Creates a new SequentialRestore.
+     *
+     * @param first  The task to run first.
+     * @param second The task to run once the first is finished.
+     */
+    public SequentialRestore(RollbackTask first, RollbackTask second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public int restore(int budget) throws Exception {
+        int used = 0;
+        if (!first.isFinished()) {
+            used += first.restore(budget);
+        }
+        if (first.isFinished() && used < budget) {
+            used += second.restore(budget - used);
+        }
+        return used;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return first.isFinished() && second.isFinished();
+    }
+}
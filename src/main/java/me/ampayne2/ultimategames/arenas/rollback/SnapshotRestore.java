@@ -0,0 +1,243 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.arenas.rollback;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Restores a region from a {@link RegionSnapshot} file.<br>
+ * The file is memory mapped and each chunk is only decoded if its hash differs from the live chunk,
+ * so chunks that weren't touched cost a single read of their blocks. Chunks are hashed a few layers at a time so hashing stays within each tick's budget.
+ * Only blocks that differ are written.
+ */
+public class SnapshotRestore implements RollbackTask {
+    private static final int COMPARES_PER_UNIT = 64;
+    private final World world;
+    private final MappedByteBuffer buffer;
+    private final int minX;
+    private final int maxX;
+    private final int minY;
+    private final int maxY;
+    private final int minZ;
+    private final int maxZ;
+    private final int chunkCount;
+    private int chunkIndex = 0;
+    private ChunkSnapshot liveChunk;
+    private int chunkX;
+    private int chunkZ;
+    private long expectedHash;
+    private long chunkOffset;
+    private int chunkLength;
+    private long hash;
+    private int hashY;
+    private int[] blocks;
+    private int blockIndex;
+    private int x0;
+    private int width;
+    private int z0;
+    private int depth;
+
+    /**
+     * Opens a snapshot file to restore.
+     *
+     * @param file  The snapshot file.
+     * @param world The world to restore the snapshot in.
+     * @throws IOException If the file couldn't be read or isn't a snapshot.
+     */
+    public SnapshotRestore(File file, World world) throws IOException {
+        this.world = world;
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, randomAccessFile.length());
+        } finally {
+            randomAccessFile.close();
+        }
+        if (buffer.remaining() < RegionSnapshot.headerSize(0) || buffer.getInt() != RegionSnapshot.MAGIC || buffer.getInt() != RegionSnapshot.VERSION) {
+            throw new IOException(file + " is not a region snapshot");
+        }
+        minX = buffer.getInt();
+        maxX = buffer.getInt();
+        minY = buffer.getInt();
+        maxY = buffer.getInt();
+        minZ = buffer.getInt();
+        maxZ = buffer.getInt();
+        chunkCount = buffer.getInt();
+        if (buffer.capacity() < RegionSnapshot.headerSize(chunkCount)) {
+            throw new IOException(file + " is truncated");
+        }
+    }
+
+    @Override
+    public int restore(int budget) throws IOException {
+        int used = 0;
+        while (used < budget && !isFinished()) {
+            if (liveChunk == null) {
+                nextChunk();
+                used++;
+                continue;
+            }
+            if (blocks == null) {
+                used += hashChunk(budget - used);
+                continue;
+            }
+            int compared = 0;
+            while (blockIndex < blocks.length && used < budget) {
+                int y = minY + blockIndex / (width * depth);
+                int z = z0 + (blockIndex / width) % depth;
+                int x = x0 + blockIndex % width;
+                int block = blocks[blockIndex++];
+                @SuppressWarnings("deprecation")
+                int live = RegionSnapshot.pack(liveChunk.getBlockTypeId(x & 15, y, z & 15), liveChunk.getBlockData(x & 15, y, z & 15));
+                if (live != block) {
+                    paste(x, y, z, block);
+                    used++;
+                } else if (++compared == COMPARES_PER_UNIT) {
+                    compared = 0;
+                    used++;
+                }
+            }
+            if (blockIndex == blocks.length) {
+                blocks = null;
+                liveChunk = null;
+            }
+        }
+        return used;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return liveChunk == null && chunkIndex == chunkCount;
+    }
+
+    /**
+     * Checks if a block is inside the snapshot's bounds.
+     *
+     * @param x The block's x coordinate.
+     * @param y The block's y coordinate.
+     * @param z The block's z coordinate.
+     * @return True if the snapshot restores the block, else false.
+     */
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+
+    /**
+     * Reads the next chunk's entry and takes a snapshot of the live chunk to hash.
+     */
+    private void nextChunk() {
+        ByteBuffer entry = buffer.duplicate();
+        entry.position((int) (RegionSnapshot.headerSize(0) + (long) chunkIndex++ * (RegionSnapshot.headerSize(1) - RegionSnapshot.headerSize(0))));
+        chunkX = entry.getInt();
+        chunkZ = entry.getInt();
+        expectedHash = entry.getLong();
+        chunkOffset = entry.getLong();
+        chunkLength = entry.getInt();
+        x0 = Math.max(minX, chunkX << 4);
+        width = Math.min(maxX, (chunkX << 4) + 15) - x0 + 1;
+        z0 = Math.max(minZ, chunkZ << 4);
+        depth = Math.min(maxZ, (chunkZ << 4) + 15) - z0 + 1;
+        liveChunk = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot();
+        hash = RegionSnapshot.FNV_OFFSET;
+        hashY = minY;
+    }
+
+    /**
+     * Hashes the next layers of the live chunk. Once every layer is hashed, the chunk is decoded if its hash differs from the snapshot's.
+     *
+     * @param budget The maximum amount of work to do. At least one layer is hashed.
+     * @return The amount of work done.
+     * @throws IOException If the chunk's data is corrupt.
+     */
+    private int hashChunk(int budget) throws IOException {
+        int layerSize = width * depth;
+        int layers = Math.max(1, Math.min(maxY - hashY + 1, budget * COMPARES_PER_UNIT / layerSize));
+        hash = RegionSnapshot.hashLayers(hash, liveChunk, minX, maxX, hashY, hashY + layers - 1, minZ, maxZ);
+        hashY += layers;
+        int used = Math.max(1, layers * layerSize / COMPARES_PER_UNIT);
+        if (hashY <= maxY) {
+            return used;
+        }
+        if (hash == expectedHash) {
+            liveChunk = null;
+            return used;
+        }
+        if (chunkOffset < 0 || chunkOffset + chunkLength > buffer.capacity()) {
+            throw new IOException("Chunk " + chunkX + ", " + chunkZ + " of the snapshot is out of bounds");
+        }
+        ByteBuffer data = buffer.duplicate();
+        data.position((int) chunkOffset);
+        data.limit((int) chunkOffset + chunkLength);
+        blocks = decode(data, layerSize * (maxY - minY + 1));
+        blockIndex = 0;
+        return used;
+    }
+
+    /**
+     * Decodes the sections of a chunk into the chunk's blocks in y, z, x order.
+     *
+     * @param data       The chunk's data.
+     * @param blockCount The amount of blocks in the chunk.
+     * @return The blocks.
+     * @throws IOException If the chunk's data is corrupt.
+     */
+    private int[] decode(ByteBuffer data, int blockCount) throws IOException {
+        int[] decoded = new int[blockCount];
+        int index = 0;
+        try {
+            while (index < blockCount) {
+                int[] palette = new int[data.getShort() & 0xFFFF];
+                for (int i = 0; i < palette.length; i++) {
+                    palette[i] = data.getInt();
+                }
+                int runCount = data.getInt();
+                for (int i = 0; i < runCount; i++) {
+                    int block = palette[data.getShort() & 0xFFFF];
+                    int runLength = (data.getShort() & 0xFFFF) + 1;
+                    for (int j = 0; j < runLength; j++) {
+                        decoded[index++] = block;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt chunk data in the snapshot", e);
+        }
+        return decoded;
+    }
+
+    /**
+     * Sets a block in the world.
+     *
+     * @param x     The block's x coordinate.
+     * @param y     The block's y coordinate.
+     * @param z     The block's z coordinate.
+     * @param block The packed type id and data.
+     */
+    @SuppressWarnings("deprecation")
+    private void paste(int x, int y, int z, int block) {
+        world.getBlockAt(x, y, z).setTypeIdAndData(block >> 4, (byte) (block & 15), false);
+    }
+}
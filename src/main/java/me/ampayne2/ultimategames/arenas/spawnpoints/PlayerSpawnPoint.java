@@ -20,16 +20,14 @@ package me.ampayne2.ultimategames.arenas.spawnpoints;
 
 import me.ampayne2.ultimategames.UltimateGames;
 import me.ampayne2.ultimategames.arenas.Arena;
+import me.ampayne2.ultimategames.players.TeleportBatch;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerMoveEvent;
 
 /**
  * An arena spawnpoint for players.
  */
-public class PlayerSpawnPoint extends SpawnPoint implements Listener {
+public class PlayerSpawnPoint extends SpawnPoint {
     private final UltimateGames ultimateGames;
     private Boolean locked;
     private String playerName;
@@ -46,7 +44,6 @@ public class PlayerSpawnPoint extends SpawnPoint implements Listener {
         super(arena, location);
         this.ultimateGames = ultimateGames;
         this.locked = locked;
-        ultimateGames.getServer().getPluginManager().registerEvents(this, ultimateGames);
     }
 
     /**
@@ -66,7 +63,7 @@ public class PlayerSpawnPoint extends SpawnPoint implements Listener {
     public void lock(Boolean enabled) {
         this.locked = enabled;
         if (!enabled) {
-            playerName = null;
+            setPlayer(null);
         }
     }
 
@@ -79,14 +76,28 @@ public class PlayerSpawnPoint extends SpawnPoint implements Listener {
         if (player != null) {
             player.teleport(getLocation());
             if (locked) {
-                this.playerName = player.getName();
+                setPlayer(player.getName());
             }
         } else {
-            this.playerName = null;
+            setPlayer(null);
         }
 
     }
 
+    /**
+     * Adds a teleport of a player to the spawnpoint to a batch for the {@link me.ampayne2.ultimategames.players.TeleportScheduler}.<br>
+     * The player is locked in right away, but isn't held on the spawnpoint until the teleport is made.
+     *
+     * @param player The player to teleport.
+     * @param batch  The batch.
+     */
+    public void teleportPlayer(Player player, TeleportBatch batch) {
+        batch.add(player, getLocation());
+        if (locked) {
+            setPlayer(player.getName());
+        }
+    }
+
     /**
      * Gets the player locked to a spawnpoint. Null if nobody is locked.
      *
@@ -97,21 +108,38 @@ public class PlayerSpawnPoint extends SpawnPoint implements Listener {
     }
 
     /**
-     * Stops players from attempting to leave spawnpoints.
+     * Sets the player locked to the spawnpoint, keeping the {@link SpawnpointManager}'s registry of locked players up to date.
+     *
+     * @param playerName The player's name. Null to release the spawnpoint.
      */
-    @EventHandler
-    public void onPlayerMove(PlayerMoveEvent event) {
-        if (locked && playerName != null) {
-            Location from = event.getFrom();
-            Location to = event.getTo();
-            if (from.getBlockX() == to.getBlockX() && from.getBlockZ() == to.getBlockZ()) {
-                return;
-            }
-            Player player = event.getPlayer();
+    void setPlayer(String playerName) {
+        if (this.playerName != null && this.playerName.equals(playerName)) {
+            return;
+        }
+        SpawnpointManager spawnpointManager = ultimateGames.getSpawnpointManager();
+        if (this.playerName != null) {
+            spawnpointManager.unlockPlayer(this.playerName, this);
+        }
+        this.playerName = playerName;
+        if (playerName != null) {
+            spawnpointManager.lockPlayer(playerName, this);
+        }
+    }
+
+    /**
+     * Teleports the locked player back onto the spawnpoint if the player moved off of it.<br>
+     * Only called for the spawnpoint the {@link SpawnpointManager} has the player locked to.
+     *
+     * @param player The player that moved.
+     * @param from   The location the player moved from.
+     * @param to     The location the player moved to.
+     */
+    public void keepPlayerLocked(Player player, Location from, Location to) {
+        if (locked && playerName != null && player.getName().equals(playerName) && !ultimateGames.getTeleportScheduler().isPending(player)) {
             Location location = getLocation();
-            if (player.getName().equals(playerName) && (Math.abs(to.getX() - location.getX()) >= 1 || Math.abs(to.getZ() - location.getZ()) >= 1)) {
-                location.setPitch(event.getFrom().getPitch());
-                location.setYaw(event.getFrom().getYaw());
+            if (Math.abs(to.getX() - location.getX()) >= 1 || Math.abs(to.getZ() - location.getZ()) >= 1) {
+                location.setPitch(from.getPitch());
+                location.setYaw(from.getYaw());
                 player.teleport(location);
                 ultimateGames.getMessenger().sendMessage(player, "spawnpoints.leave");
             }
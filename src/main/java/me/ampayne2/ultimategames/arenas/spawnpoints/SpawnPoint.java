@@ -20,6 +20,7 @@ package me.ampayne2.ultimategames.arenas.spawnpoints;
 
 import me.ampayne2.ultimategames.arenas.Arena;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
 /**
@@ -50,11 +51,15 @@ public abstract class SpawnPoint {
     }
 
     /**
-     * Gets the spawnpoint's location.
+     * Gets the spawnpoint's location, in the world its arena's region is currently bound to.
      *
      * @return The spawnpoint's location.
      */
     public Location getLocation() {
+        World world = arena.getRegion().getWorld();
+        if (location.getWorld() != world) {
+            location.setWorld(world);
+        }
         return location;
     }
 
@@ -0,0 +1,265 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.arenas.spawnpoints;
+
+import org.bukkit.Location;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * A k-d tree of an arena's player spawnpoints, built once when the spawnpoints change.<br>
+ * Finds the free spawnpoint furthest from a set of enemies by searching the subtree with the best bound first
+ * and skipping every subtree that can't beat the best spawnpoint found so far.
+ */
+class SpawnPointTree {
+    private static final int LEAF_SIZE = 4;
+    private final PlayerSpawnPoint[] spawnPoints;
+    private final double[][] coordinates;
+    private final Integer[] order;
+    private final Node root;
+
+    /**
+     * Creates a new SpawnPointTree.
+     *
+     * @param spawnPoints The spawnpoints.
+     */
+    SpawnPointTree(List<PlayerSpawnPoint> spawnPoints) {
+        this.spawnPoints = spawnPoints.toArray(new PlayerSpawnPoint[spawnPoints.size()]);
+        this.coordinates = new double[this.spawnPoints.length][];
+        this.order = new Integer[this.spawnPoints.length];
+        for (int i = 0; i < this.spawnPoints.length; i++) {
+            Location location = this.spawnPoints[i].getLocation();
+            coordinates[i] = new double[]{location.getX(), location.getY(), location.getZ()};
+            order[i] = i;
+        }
+        root = order.length == 0 ? null : build(0, order.length);
+    }
+
+    /**
+     * Finds the free spawnpoint with the best score.<br>
+     * A spawnpoint's score is its distance to the nearest enemy, minus its distance to the nearest ally times the team affinity.
+     * Ties are broken at random.
+     *
+     * @param enemies      The coordinates of the enemies.
+     * @param allies       The coordinates of the allies.
+     * @param teamAffinity How strongly spawnpoints near allies are preferred. 0 to ignore allies. Must not be negative, or the search's bounds don't hold.
+     * @param random       The random number generator to break ties with.
+     * @return The spawnpoint. Null if every spawnpoint is taken.
+     */
+    PlayerSpawnPoint findSafest(double[][] enemies, double[][] allies, double teamAffinity, Random random) {
+        if (root == null) {
+            return null;
+        }
+        if (teamAffinity == 0) {
+            allies = new double[0][];
+        }
+        PriorityQueue<Candidate> candidates = new PriorityQueue<Candidate>(16, new Comparator<Candidate>() {
+            @Override
+            public int compare(Candidate candidate1, Candidate candidate2) {
+                return Double.compare(candidate2.bound, candidate1.bound);
+            }
+        });
+        candidates.add(new Candidate(root, bound(root, enemies, allies, teamAffinity)));
+        PlayerSpawnPoint best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int ties = 0;
+        while (!candidates.isEmpty()) {
+            Candidate candidate = candidates.poll();
+            if (candidate.bound < bestScore) {
+                break;
+            }
+            Node node = candidate.node;
+            if (node.left == null) {
+                for (int i = node.start; i < node.end; i++) {
+                    int index = order[i];
+                    if (spawnPoints[index].getPlayer() != null) {
+                        continue;
+                    }
+                    double score = nearest(coordinates[index], enemies) - teamAffinity * nearest(coordinates[index], allies);
+                    if (score > bestScore) {
+                        best = spawnPoints[index];
+                        bestScore = score;
+                        ties = 1;
+                    } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                        best = spawnPoints[index];
+                    }
+                }
+            } else {
+                candidates.add(new Candidate(node.left, bound(node.left, enemies, allies, teamAffinity)));
+                candidates.add(new Candidate(node.right, bound(node.right, enemies, allies, teamAffinity)));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Builds the subtree of a range of the spawnpoint order, splitting on the axis the spawnpoints are most spread out along.
+     *
+     * @param start The start of the range.
+     * @param end   The end of the range, exclusive.
+     * @return The subtree's root node.
+     */
+    private Node build(int start, int end) {
+        Node node = new Node(start, end);
+        for (int i = start; i < end; i++) {
+            double[] point = coordinates[order[i]];
+            for (int axis = 0; axis < 3; axis++) {
+                node.min[axis] = Math.min(node.min[axis], point[axis]);
+                node.max[axis] = Math.max(node.max[axis], point[axis]);
+            }
+        }
+        if (end - start > LEAF_SIZE) {
+            int splitAxis = 0;
+            for (int axis = 1; axis < 3; axis++) {
+                if (node.max[axis] - node.min[axis] > node.max[splitAxis] - node.min[splitAxis]) {
+                    splitAxis = axis;
+                }
+            }
+            final int sortAxis = splitAxis;
+            Arrays.sort(order, start, end, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer index1, Integer index2) {
+                    return Double.compare(coordinates[index1][sortAxis], coordinates[index2][sortAxis]);
+                }
+            });
+            int middle = (start + end) >>> 1;
+            node.left = build(start, middle);
+            node.right = build(middle, end);
+        }
+        return node;
+    }
+
+    /**
+     * Gets an upper bound of the score of every spawnpoint in a node.
+     *
+     * @param node         The node.
+     * @param enemies      The coordinates of the enemies.
+     * @param allies       The coordinates of the allies.
+     * @param teamAffinity How strongly spawnpoints near allies are preferred.
+     * @return The upper bound.
+     */
+    private static double bound(Node node, double[][] enemies, double[][] allies, double teamAffinity) {
+        double farthestEnemy = enemies.length == 0 ? 0 : Double.POSITIVE_INFINITY;
+        for (double[] enemy : enemies) {
+            farthestEnemy = Math.min(farthestEnemy, node.maxDistance(enemy));
+        }
+        double nearestAlly = allies.length == 0 ? 0 : Double.POSITIVE_INFINITY;
+        for (double[] ally : allies) {
+            nearestAlly = Math.min(nearestAlly, node.minDistance(ally));
+        }
+        return farthestEnemy - teamAffinity * nearestAlly;
+    }
+
+    /**
+     * Gets the distance from a point to the nearest of several others.
+     *
+     * @param point  The point.
+     * @param others The other points.
+     * @return The distance. 0 if there are no other points.
+     */
+    private static double nearest(double[] point, double[][] others) {
+        if (others.length == 0) {
+            return 0;
+        }
+        double nearest = Double.POSITIVE_INFINITY;
+        for (double[] other : others) {
+            double dx = point[0] - other[0];
+            double dy = point[1] - other[1];
+            double dz = point[2] - other[2];
+            nearest = Math.min(nearest, dx * dx + dy * dy + dz * dz);
+        }
+        return Math.sqrt(nearest);
+    }
+
+    /**
+     * A node of the tree, holding the bounding box of a range of the spawnpoint order.
+     */
+    private static class Node {
+        private final int start;
+        private final int end;
+        private final double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        private final double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        private Node left;
+        private Node right;
+
+        /**
+         * Creates a new Node.
+         *
+         * @param start The start of the node's range.
+         * @param end   The end of the node's range, exclusive.
+         */
+        private Node(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Gets the distance from a point to the nearest point of the node's bounding box.
+         *
+         * @param point The point.
+         * @return The distance.
+         */
+        private double minDistance(double[] point) {
+            double distance = 0;
+            for (int axis = 0; axis < 3; axis++) {
+                double delta = Math.max(0, Math.max(min[axis] - point[axis], point[axis] - max[axis]));
+                distance += delta * delta;
+            }
+            return Math.sqrt(distance);
+        }
+
+        /**
+         * Gets the distance from a point to the farthest point of the node's bounding box.
+         *
+         * @param point The point.
+         * @return The distance.
+         */
+        private double maxDistance(double[] point) {
+            double distance = 0;
+            for (int axis = 0; axis < 3; axis++) {
+                double delta = Math.max(Math.abs(point[axis] - min[axis]), Math.abs(point[axis] - max[axis]));
+                distance += delta * delta;
+            }
+            return Math.sqrt(distance);
+        }
+    }
+
+    /**
+     * A node waiting to be searched, with the upper bound of its score.
+     */
+    private static class Candidate {
+        private final Node node;
+        private final double bound;
+
+        /**
+         * Creates a new Candidate.
+         *
+         * @param node  The node.
+         * @param bound The upper bound of the node's score.
+         */
+        private Candidate(Node node, double bound) {
+            this.node = node;
+            this.bound = bound;
+        }
+    }
+}
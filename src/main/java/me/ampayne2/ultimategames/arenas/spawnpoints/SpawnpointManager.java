@@ -21,8 +21,12 @@ package me.ampayne2.ultimategames.arenas.spawnpoints;
 import me.ampayne2.ultimategames.UltimateGames;
 import me.ampayne2.ultimategames.arenas.Arena;
 import me.ampayne2.ultimategames.config.ConfigType;
+import me.ampayne2.ultimategames.players.teams.Team;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
 
 import java.util.*;
 
@@ -33,6 +37,9 @@ public class SpawnpointManager {
     private final UltimateGames ultimateGames;
     private Map<Arena, List<PlayerSpawnPoint>> playerSpawnPoints = new HashMap<Arena, List<PlayerSpawnPoint>>();
     private Map<Arena, SpectatorSpawnPoint> spectatorSpawnPoints = new HashMap<Arena, SpectatorSpawnPoint>();
+    private final Map<String, PlayerSpawnPoint> lockedPlayers = new HashMap<String, PlayerSpawnPoint>();
+    private final Map<Arena, SpawnPointTree> spawnPointTrees = new HashMap<Arena, SpawnPointTree>();
+    private final Map<Arena, Random> randoms = new HashMap<Arena, Random>();
 
     /**
      * Creates a new Spawnpoint Manager.
@@ -60,6 +67,7 @@ public class SpawnpointManager {
      * @param spawnPoint The spawnpoint.
      */
     public void addSpawnPoint(PlayerSpawnPoint spawnPoint) {
+        spawnPointTrees.remove(spawnPoint.getArena());
         if (playerSpawnPoints.containsKey(spawnPoint.getArena())) {
             playerSpawnPoints.get(spawnPoint.getArena()).add(spawnPoint);
         } else {
@@ -122,6 +130,38 @@ public class SpawnpointManager {
         return spawnPoint;
     }
 
+    /**
+     * Copies the player and spectator spawnpoints of an arena to another arena, without saving them to the config.
+     *
+     * @param from    The arena to copy from.
+     * @param to      The arena to copy to.
+     * @param offsetX The x offset of the copies.
+     * @param offsetZ The z offset of the copies.
+     */
+    public void copySpawnPoints(Arena from, Arena to, double offsetX, double offsetZ) {
+        if (playerSpawnPoints.containsKey(from)) {
+            for (PlayerSpawnPoint spawnPoint : playerSpawnPoints.get(from)) {
+                addSpawnPoint(new PlayerSpawnPoint(ultimateGames, to, offset(spawnPoint.getLocation(), to, offsetX, offsetZ), spawnPoint.locked()));
+            }
+        }
+        if (spectatorSpawnPoints.containsKey(from)) {
+            spectatorSpawnPoints.put(to, new SpectatorSpawnPoint(to, offset(spectatorSpawnPoints.get(from).getLocation(), to, offsetX, offsetZ)));
+        }
+    }
+
+    /**
+     * Moves a location into another arena's world by an offset.
+     *
+     * @param location The location.
+     * @param arena    The arena.
+     * @param offsetX  The x offset.
+     * @param offsetZ  The z offset.
+     * @return The moved location.
+     */
+    private static Location offset(Location location, Arena arena, double offsetX, double offsetZ) {
+        return new Location(arena.getRegion().getWorld(), location.getX() + offsetX, location.getY(), location.getZ() + offsetZ, location.getYaw(), location.getPitch());
+    }
+
     /**
      * Get a specific spawnpoint of an arena.
      *
@@ -158,7 +198,7 @@ public class SpawnpointManager {
      */
     public PlayerSpawnPoint getRandomSpawnPoint(Arena arena) {
         if (playerSpawnPoints.containsKey(arena)) {
-            Random generator = new Random();
+            Random generator = getRandom(arena);
             Integer index = generator.nextInt(playerSpawnPoints.get(arena).size());
             return playerSpawnPoints.get(arena).get(index);
         }
@@ -175,7 +215,7 @@ public class SpawnpointManager {
      */
     public PlayerSpawnPoint getRandomSpawnPoint(Arena arena, Integer minIndex) {
         if (playerSpawnPoints.containsKey(arena) && playerSpawnPoints.get(arena).size() > minIndex) {
-            Random generator = new Random();
+            Random generator = getRandom(arena);
             Integer index = generator.nextInt(playerSpawnPoints.get(arena).size() - minIndex) + minIndex;
             return playerSpawnPoints.get(arena).get(index);
         }
@@ -193,13 +233,102 @@ public class SpawnpointManager {
      */
     public PlayerSpawnPoint getRandomSpawnPoint(Arena arena, Integer minIndex, Integer maxIndex) {
         if (playerSpawnPoints.containsKey(arena) && minIndex < maxIndex && playerSpawnPoints.get(arena).size() > maxIndex) {
-            Random generator = new Random();
+            Random generator = getRandom(arena);
             Integer index = generator.nextInt(maxIndex - minIndex + 1) + minIndex;
             return playerSpawnPoints.get(arena).get(index);
         }
         return null;
     }
 
+    /**
+     * Get a random spawnpoint of an arena that no player is locked to.
+     *
+     * @param arena The arena.
+     * @return The spawnpoint. Null if every spawnpoint is taken.
+     */
+    public PlayerSpawnPoint getFreeSpawnPoint(Arena arena) {
+        if (playerSpawnPoints.containsKey(arena)) {
+            List<PlayerSpawnPoint> freeSpawnPoints = new ArrayList<PlayerSpawnPoint>();
+            for (PlayerSpawnPoint spawnPoint : playerSpawnPoints.get(arena)) {
+                if (spawnPoint.getPlayer() == null) {
+                    freeSpawnPoints.add(spawnPoint);
+                }
+            }
+            if (!freeSpawnPoints.isEmpty()) {
+                return freeSpawnPoints.get(getRandom(arena).nextInt(freeSpawnPoints.size()));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the free spawnpoint of an arena furthest from any enemy.
+     *
+     * @param arena   The arena.
+     * @param enemies The locations of the enemies.
+     * @return The spawnpoint. Null if every spawnpoint is taken.
+     */
+    public PlayerSpawnPoint getSafestSpawnPoint(Arena arena, Collection<Location> enemies) {
+        return getSafestSpawnPoint(arena, enemies, Collections.<Location>emptyList(), 0);
+    }
+
+    /**
+     * Gets the free spawnpoint of an arena furthest from any enemy, optionally preferring spawnpoints near allies.<br>
+     * Each spawnpoint is scored by its distance to the nearest enemy minus its distance to the nearest ally times the team affinity,
+     * and the spawnpoint with the best score is chosen. Locations outside the arena's world are ignored.
+     * Cheap enough to call on every respawn, since the spawnpoints are kept in a spatial tree and only the parts of it that can beat the best spawnpoint are searched.
+     *
+     * @param arena        The arena.
+     * @param enemies      The locations of the enemies.
+     * @param allies       The locations of the allies.
+     * @param teamAffinity How strongly spawnpoints near allies are preferred, at least 0. 0 to ignore allies, 1 to weigh them the same as enemies.
+     * @return The spawnpoint. Null if every spawnpoint is taken.
+     * @throws IllegalArgumentException If the team affinity is negative.
+     */
+    public PlayerSpawnPoint getSafestSpawnPoint(Arena arena, Collection<Location> enemies, Collection<Location> allies, double teamAffinity) {
+        if (!(teamAffinity >= 0)) {
+            throw new IllegalArgumentException("Team affinity has to be at least 0");
+        }
+        if (!playerSpawnPoints.containsKey(arena)) {
+            return null;
+        }
+        SpawnPointTree spawnPointTree = spawnPointTrees.get(arena);
+        if (spawnPointTree == null) {
+            spawnPointTree = new SpawnPointTree(playerSpawnPoints.get(arena));
+            spawnPointTrees.put(arena, spawnPointTree);
+        }
+        World world = arena.getRegion().getWorld();
+        return spawnPointTree.findSafest(toCoordinates(enemies, world), toCoordinates(allies, world), teamAffinity, getRandom(arena));
+    }
+
+    /**
+     * Gets the free spawnpoint of an arena furthest from a player's enemies.<br>
+     * Every other player in the arena is an enemy, except for players on the same team as the player, who are allies.
+     *
+     * @param arena        The arena.
+     * @param player       The player.
+     * @param teamAffinity How strongly spawnpoints near allies are preferred, at least 0. 0 to ignore allies.
+     * @return The spawnpoint. Null if every spawnpoint is taken.
+     * @throws IllegalArgumentException If the team affinity is negative.
+     */
+    public PlayerSpawnPoint getSafestSpawnPoint(Arena arena, Player player, double teamAffinity) {
+        Team team = ultimateGames.getTeamManager().getPlayerTeam(player.getName());
+        List<Location> enemies = new ArrayList<Location>();
+        List<Location> allies = new ArrayList<Location>();
+        for (String playerName : arena.getPlayers()) {
+            Player arenaPlayer = Bukkit.getPlayerExact(playerName);
+            if (arenaPlayer == null || arenaPlayer.equals(player) || arenaPlayer.isDead()) {
+                continue;
+            }
+            if (team != null && team.hasPlayer(playerName)) {
+                allies.add(arenaPlayer.getLocation());
+            } else {
+                enemies.add(arenaPlayer.getLocation());
+            }
+        }
+        return getSafestSpawnPoint(arena, enemies, allies, teamAffinity);
+    }
+
     /**
      * Get a certain amount of spawnpoints distributed evenly among the available spawnpoints.
      * Example: You have 8 spawn points. You ask for 4. It gives you the spawnpoints at indexes 0, 2, 4, and 6.
@@ -238,6 +367,85 @@ public class SpawnpointManager {
         }
     }
 
+    /**
+     * Gets the random number generator of an arena, creating it if the arena doesn't have one yet.
+     *
+     * @param arena The arena.
+     * @return The random number generator.
+     */
+    private Random getRandom(Arena arena) {
+        Random random = randoms.get(arena);
+        if (random == null) {
+            random = new Random();
+            randoms.put(arena, random);
+        }
+        return random;
+    }
+
+    /**
+     * Converts locations in a world to coordinates, leaving out locations in other worlds.
+     *
+     * @param locations The locations.
+     * @param world     The world.
+     * @return The coordinates of each location.
+     */
+    private static double[][] toCoordinates(Collection<Location> locations, World world) {
+        List<double[]> coordinates = new ArrayList<double[]>(locations.size());
+        for (Location location : locations) {
+            if (location != null && location.getWorld() != null && location.getWorld().equals(world)) {
+                coordinates.add(new double[]{location.getX(), location.getY(), location.getZ()});
+            }
+        }
+        return coordinates.toArray(new double[coordinates.size()][]);
+    }
+
+    /**
+     * Gets the spawnpoint a player is locked to.
+     *
+     * @param playerName The player's name.
+     * @return The spawnpoint. Null if the player isn't locked to a spawnpoint.
+     */
+    public PlayerSpawnPoint getLockedSpawnPoint(String playerName) {
+        return lockedPlayers.get(playerName);
+    }
+
+    /**
+     * Releases a player from the spawnpoint the player is locked to, if any.
+     *
+     * @param playerName The player's name.
+     */
+    public void releasePlayer(String playerName) {
+        PlayerSpawnPoint spawnPoint = lockedPlayers.get(playerName);
+        if (spawnPoint != null) {
+            spawnPoint.teleportPlayer(null);
+        }
+    }
+
+    /**
+     * Registers a player as locked to a spawnpoint, releasing any other spawnpoint the player was locked to.
+     *
+     * @param playerName The player's name.
+     * @param spawnPoint The spawnpoint.
+     */
+    void lockPlayer(String playerName, PlayerSpawnPoint spawnPoint) {
+        PlayerSpawnPoint previous = lockedPlayers.put(playerName, spawnPoint);
+        if (previous != null && previous != spawnPoint) {
+            previous.setPlayer(null);
+        }
+    }
+
+    /**
+     * Unregisters a player as locked to a spawnpoint.
+     *
+     * @param playerName The player's name.
+     * @param spawnPoint The spawnpoint the player was locked to.
+     */
+    void unlockPlayer(String playerName, PlayerSpawnPoint spawnPoint) {
+        if (lockedPlayers.get(playerName) == spawnPoint) {
+            lockedPlayers.remove(playerName);
+        }
+    }
+
     /**
      * Removes the spawnpoint at a certain index.
      *
@@ -246,7 +454,10 @@ public class SpawnpointManager {
      */
     public void removeSpawnPoint(Arena arena, Integer index) {
         if (playerSpawnPoints.containsKey(arena) && playerSpawnPoints.get(arena).size() >= index) {
-            playerSpawnPoints.get(arena).remove(playerSpawnPoints.get(arena).get(index));
+            PlayerSpawnPoint spawnPoint = playerSpawnPoints.get(arena).get(index);
+            spawnPoint.setPlayer(null);
+            spawnPointTrees.remove(arena);
+            playerSpawnPoints.get(arena).remove(spawnPoint);
             // TODO: Remove spawnpoint from arena config.
         }
     }
@@ -265,6 +476,10 @@ public class SpawnpointManager {
                     remove.add(playerSpawnPoints.get(arena).get(index));
                 }
             }
+            for (PlayerSpawnPoint spawnPoint : remove) {
+                spawnPoint.setPlayer(null);
+            }
+            spawnPointTrees.remove(arena);
             playerSpawnPoints.get(arena).removeAll(remove);
             // TODO: Remove spawnpoints from arena config.
         }
@@ -277,8 +492,21 @@ public class SpawnpointManager {
      */
     public void removeAllSpawnPoints(Arena arena) {
         if (playerSpawnPoints.containsKey(arena)) {
-            playerSpawnPoints.remove(arena);
+            for (PlayerSpawnPoint spawnPoint : playerSpawnPoints.remove(arena)) {
+                spawnPoint.setPlayer(null);
+            }
+            spawnPointTrees.remove(arena);
+            randoms.remove(arena);
             // TODO: Remove spawnpoints from arena config.
         }
     }
+
+    /**
+     * Removes the spectator spawnpoint of an arena from the manager.
+     *
+     * @param arena The arena.
+     */
+    public void removeSpectatorSpawnPoint(Arena arena) {
+        spectatorSpawnPoints.remove(arena);
+    }
 }
@@ -19,6 +19,7 @@
 package me.ampayne2.ultimategames.arenas.spawnpoints;
 
 import me.ampayne2.ultimategames.arenas.Arena;
+import me.ampayne2.ultimategames.players.TeleportBatch;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
@@ -45,4 +46,14 @@ public class SpectatorSpawnPoint extends SpawnPoint {
     public void teleportPlayer(Player player) {
         player.teleport(getLocation());
     }
+
+    /**
+     * Adds a teleport of a player to the spawnpoint to a batch for the {@link me.ampayne2.ultimategames.players.TeleportScheduler}.
+     *
+     * @param player The player to teleport.
+     * @param batch  The batch.
+     */
+    public void teleportPlayer(Player player, TeleportBatch batch) {
+        batch.add(player, getLocation());
+    }
 }
@@ -0,0 +1,220 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.arenas.worlds;
+
+import me.ampayne2.ultimategames.UltimateGames;
+import me.ampayne2.ultimategames.arenas.Arena;
+import me.ampayne2.ultimategames.arenas.ArenaStatus;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.WorldCreator;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+/**
+ * Manages the worlds that only hold arenas.<br>
+ * Arena worlds are empty, don't spawn mobs, aren't saved and don't keep their spawn loaded.
+ * They are loaded when one of their arenas opens and unloaded once all of their arenas have been stopped for ArenaWorldIdleTicks.
+ * Arenas of any world are bound to it when it loads and unbound when it unloads.
+ */
+public class ArenaWorldManager implements Listener, Runnable {
+    private final UltimateGames ultimateGames;
+    private final Set<String> managedWorlds = new HashSet<String>();
+    private final Map<String, Integer> idleTicks = new HashMap<String, Integer>();
+    private final int maxIdleTicks;
+    private Integer taskId = null;
+    private static final int CHECK_INTERVAL = 100;
+    private static final int DEFAULT_IDLE_TICKS = 6000;
+
+    /**
+     * Creates a new ArenaWorldManager.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     */
+    public ArenaWorldManager(UltimateGames ultimateGames) {
+        this.ultimateGames = ultimateGames;
+        this.maxIdleTicks = ultimateGames.getConfig().getInt("ArenaWorldIdleTicks", DEFAULT_IDLE_TICKS);
+        for (String worldName : ultimateGames.getConfig().getStringList("ArenaWorlds")) {
+            manageWorld(worldName);
+        }
+        ultimateGames.getServer().getPluginManager().registerEvents(this, ultimateGames);
+        taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(ultimateGames, this, CHECK_INTERVAL, CHECK_INTERVAL);
+    }
+
+    /**
+     * Makes a world a managed arena world. Applies the arena world settings right away if it is loaded.
+     *
+     * @param worldName The world's name.
+     */
+    public void manageWorld(String worldName) {
+        if (managedWorlds.add(worldName)) {
+            World world = Bukkit.getWorld(worldName);
+            if (world != null) {
+                applySettings(world);
+            }
+        }
+    }
+
+    /**
+     * Checks if a world is a managed arena world.
+     *
+     * @param worldName The world's name.
+     * @return True if the world is managed, else false.
+     */
+    public boolean isManaged(String worldName) {
+        return managedWorlds.contains(worldName);
+    }
+
+    /**
+     * Gets a managed arena world, loading it if needed.
+     *
+     * @param worldName The world's name.
+     * @return The world. Null if the world isn't managed or couldn't be loaded.
+     */
+    public World loadWorld(String worldName) {
+        World world = Bukkit.getWorld(worldName);
+        if (world == null && isManaged(worldName)) {
+            ultimateGames.getMessenger().debug("Loading arena world " + worldName);
+            world = new WorldCreator(worldName).generator(new VoidGenerator()).generateStructures(false).createWorld();
+        }
+        idleTicks.remove(worldName);
+        return world;
+    }
+
+    /**
+     * Makes sure the world of an arena is loaded, loading it if it is a managed arena world.
+     *
+     * @param arena The arena.
+     * @return True if the arena's world is loaded, else false.
+     */
+    public boolean loadWorld(Arena arena) {
+        if (arena.getRegion().getWorld() == null) {
+            loadWorld(arena.getRegion().getWorldName());
+        }
+        return arena.getRegion().getWorld() != null;
+    }
+
+    /**
+     * Unloads the managed arena worlds whose arenas have all been stopped for long enough.
+     */
+    @Override
+    public void run() {
+        List<Arena> arenas = ultimateGames.getArenaManager().getArenas();
+        for (String worldName : managedWorlds) {
+            World world = Bukkit.getWorld(worldName);
+            if (world == null) {
+                idleTicks.remove(worldName);
+            } else if (!isIdle(world, arenas)) {
+                idleTicks.remove(worldName);
+            } else {
+                int ticks = (idleTicks.containsKey(worldName) ? idleTicks.get(worldName) : 0) + CHECK_INTERVAL;
+                if (ticks < maxIdleTicks) {
+                    idleTicks.put(worldName, ticks);
+                } else {
+                    idleTicks.remove(worldName);
+                    if (Bukkit.unloadWorld(world, false)) {
+                        ultimateGames.getMessenger().debug("Unloaded idle arena world " + worldName);
+                    } else {
+                        ultimateGames.getMessenger().log(Level.WARNING, "Could not unload arena world " + worldName);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops unloading idle worlds.
+     */
+    public void stop() {
+        if (taskId != null) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = null;
+        }
+    }
+
+    /**
+     * Applies the arena world settings to a managed world and binds arenas to any world that loads.
+     *
+     * @param event The WorldLoadEvent.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        World world = event.getWorld();
+        if (isManaged(world.getName())) {
+            applySettings(world);
+        }
+        if (ultimateGames.getArenaManager() != null) {
+            ultimateGames.getArenaManager().bindWorld(world);
+        }
+    }
+
+    /**
+     * Unbinds arenas from a world that unloads.
+     *
+     * @param event The WorldUnloadEvent.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        if (ultimateGames.getArenaManager() != null) {
+            ultimateGames.getArenaManager().unbindWorld(event.getWorld());
+        }
+    }
+
+    /**
+     * Checks if a world has no players, no arenas that aren't stopped, no instances and no pending rollbacks.<br>
+     * Instances only exist in memory, so a world holding them is never idle.
+     *
+     * @param world  The world.
+     * @param arenas All of the arenas.
+     * @return True if the world is idle, else false.
+     */
+    private boolean isIdle(World world, List<Arena> arenas) {
+        if (!world.getPlayers().isEmpty() || ultimateGames.getRollbackManager().hasPendingRollbacks(world)) {
+            return false;
+        }
+        for (Arena arena : arenas) {
+            if (arena.getRegion().getWorld() == world && (arena.getStatus() != ArenaStatus.ARENA_STOPPED || arena.isInstance())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the arena world settings to a world.
+     *
+     * @param world The world.
+     */
+    private void applySettings(World world) {
+        world.setSpawnFlags(false, false);
+        world.setGameRuleValue("doMobSpawning", "false");
+        world.setAutoSave(false);
+        world.setKeepSpawnInMemory(false);
+    }
+}
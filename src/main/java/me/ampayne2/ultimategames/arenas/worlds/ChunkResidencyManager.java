@@ -0,0 +1,385 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.arenas.worlds;
+
+import me.ampayne2.ultimategames.UltimateGames;
+import me.ampayne2.ultimategames.arenas.Arena;
+import me.ampayne2.ultimategames.arenas.ArenaStatus;
+import me.ampayne2.ultimategames.arenas.Region;
+import me.ampayne2.ultimategames.arenas.spawnpoints.PlayerSpawnPoint;
+import me.ampayne2.ultimategames.arenas.spawnpoints.SpectatorSpawnPoint;
+import me.ampayne2.ultimategames.utils.ChunkKey;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the chunks of active arenas loaded.<br>
+ * While an arena is OPEN or STARTING, the chunks of its spawnpoints and then its region are loaded, at most ChunkPreloadPerTick per tick across all arenas
+ * unless a starting countdown needs more. The chunks are held while the arena is running, ending or resetting,
+ * and released ChunkReleaseTicks after the arena stops.
+ */
+public class ChunkResidencyManager implements Listener, Runnable {
+    private final UltimateGames ultimateGames;
+    private final Map<Arena, Residency> residencies = new HashMap<Arena, Residency>();
+    private final Map<String, Map<Long, Integer>> heldChunks = new HashMap<String, Map<Long, Integer>>();
+    private final int chunksPerTick;
+    private final int releaseTicks;
+    private Integer taskId = null;
+    private static final int DEFAULT_CHUNKS_PER_TICK = 2;
+    private static final int DEFAULT_RELEASE_TICKS = 1200;
+
+    /**
+     * Creates a new ChunkResidencyManager.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     */
+    public ChunkResidencyManager(UltimateGames ultimateGames) {
+        this.ultimateGames = ultimateGames;
+        this.chunksPerTick = Math.max(1, ultimateGames.getConfig().getInt("ChunkPreloadPerTick", DEFAULT_CHUNKS_PER_TICK));
+        this.releaseTicks = ultimateGames.getConfig().getInt("ChunkReleaseTicks", DEFAULT_RELEASE_TICKS);
+        ultimateGames.getServer().getPluginManager().registerEvents(this, ultimateGames);
+        taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(ultimateGames, this, 1, 1);
+    }
+
+    /**
+     * Gets the amount of chunks of an arena's spawnpoints and region that are loaded.
+     *
+     * @param arena The arena.
+     * @return The amount of loaded chunks.
+     */
+    public int getLoadedChunkCount(Arena arena) {
+        World world = arena.getRegion().getWorld();
+        if (world == null) {
+            return 0;
+        }
+        Residency residency = residencies.get(arena);
+        Set<Long> chunks = residency == null ? collectChunks(arena) : residency.chunks;
+        int loaded = 0;
+        for (Long chunk : chunks) {
+            if (world.isChunkLoaded(ChunkKey.getX(chunk), ChunkKey.getZ(chunk))) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Gets the amount of chunks covering an arena's spawnpoints and region.
+     *
+     * @param arena The arena.
+     * @return The amount of chunks.
+     */
+    public int getChunkCount(Arena arena) {
+        Residency residency = residencies.get(arena);
+        return residency == null ? collectChunks(arena).size() : residency.chunks.size();
+    }
+
+    /**
+     * Gets the amount of distinct chunks held loaded. Chunks shared by several arenas are counted once.
+     *
+     * @return The amount of chunks.
+     */
+    public int getHeldChunkCount() {
+        int count = 0;
+        for (Map<Long, Integer> worldChunks : heldChunks.values()) {
+            count += worldChunks.size();
+        }
+        return count;
+    }
+
+    /**
+     * Checks if an arena's chunks are being held loaded.
+     *
+     * @param arena The arena.
+     * @return True if the arena's chunks are held, else false.
+     */
+    public boolean isResident(Arena arena) {
+        return residencies.containsKey(arena);
+    }
+
+    /**
+     * Updates the residency of every arena and loads the next chunks of arenas that are opening or starting.
+     */
+    @Override
+    public void run() {
+        Set<Arena> seen = new HashSet<Arena>();
+        List<Arena> preloading = new ArrayList<Arena>();
+        for (Arena arena : ultimateGames.getArenaManager().getArenas()) {
+            seen.add(arena);
+            World world = arena.getRegion().getWorld();
+            Residency residency = residencies.get(arena);
+            if (residency != null && residency.world != world) {
+                release(arena);
+                residency = null;
+            }
+            if (world != null && isActive(arena.getStatus())) {
+                if (residency == null) {
+                    residency = hold(arena, world);
+                }
+                residency.releaseTicks = releaseTicks;
+                if (!residency.toLoad.isEmpty()) {
+                    preloading.add(arena);
+                }
+            } else if (residency != null && --residency.releaseTicks <= 0) {
+                release(arena);
+            }
+        }
+        for (Arena arena : new ArrayList<Arena>(residencies.keySet())) {
+            if (!seen.contains(arena)) {
+                release(arena);
+            }
+        }
+        if (!preloading.isEmpty()) {
+            preload(preloading);
+        }
+    }
+
+    /**
+     * Stops holding chunks.
+     */
+    public void stop() {
+        if (taskId != null) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = null;
+        }
+        residencies.clear();
+        heldChunks.clear();
+    }
+
+    /**
+     * Keeps held chunks from unloading.
+     *
+     * @param event The ChunkUnloadEvent.
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Map<Long, Integer> worldChunks = heldChunks.get(event.getWorld().getName());
+        if (worldChunks != null && worldChunks.containsKey(ChunkKey.pack(event.getChunk()))) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Checks if an arena status needs the arena's chunks loaded.
+     *
+     * @param status The status.
+     * @return True if the chunks should be held, else false.
+     */
+    private static boolean isActive(ArenaStatus status) {
+        switch (status) {
+            case OPEN:
+            case STARTING:
+            case RUNNING:
+            case ENDING:
+            case RESETTING:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Starts holding the chunks of an arena.
+     *
+     * @param arena The arena.
+     * @param world The arena's world.
+     * @return The arena's residency.
+     */
+    private Residency hold(Arena arena, World world) {
+        Residency residency = new Residency(world, collectChunks(arena));
+        Map<Long, Integer> worldChunks = heldChunks.get(world.getName());
+        if (worldChunks == null) {
+            worldChunks = new HashMap<Long, Integer>();
+            heldChunks.put(world.getName(), worldChunks);
+        }
+        for (Long chunk : residency.chunks) {
+            Integer holders = worldChunks.get(chunk);
+            worldChunks.put(chunk, holders == null ? 1 : holders + 1);
+        }
+        residencies.put(arena, residency);
+        return residency;
+    }
+
+    /**
+     * Stops holding the chunks of an arena, asking the server to unload the ones no other arena holds.
+     *
+     * @param arena The arena.
+     */
+    private void release(Arena arena) {
+        Residency residency = residencies.remove(arena);
+        if (residency == null) {
+            return;
+        }
+        String worldName = residency.world.getName();
+        Map<Long, Integer> worldChunks = heldChunks.get(worldName);
+        if (worldChunks == null) {
+            return;
+        }
+        boolean worldLoaded = Bukkit.getWorld(worldName) == residency.world;
+        for (Long chunk : residency.chunks) {
+            Integer holders = worldChunks.get(chunk);
+            if (holders == null || holders <= 1) {
+                worldChunks.remove(chunk);
+                if (worldLoaded) {
+                    residency.world.unloadChunkRequest(ChunkKey.getX(chunk), ChunkKey.getZ(chunk), true);
+                }
+            } else {
+                worldChunks.put(chunk, holders - 1);
+            }
+        }
+        if (worldChunks.isEmpty()) {
+            heldChunks.remove(worldName);
+        }
+    }
+
+    /**
+     * Loads the next chunks of the arenas that are preloading, at most ChunkPreloadPerTick chunks between all of them.<br>
+     * Arenas in a starting countdown go first and load enough chunks each tick to finish before the countdown ends, even past the budget.
+     *
+     * @param arenas The arenas with chunks left to load.
+     */
+    private void preload(List<Arena> arenas) {
+        int budget = chunksPerTick;
+        List<Arena> waiting = new ArrayList<Arena>(arenas.size());
+        for (Arena arena : arenas) {
+            Residency residency = residencies.get(arena);
+            int required = getRequiredChunks(arena, residency);
+            if (required > 0) {
+                budget -= preload(residency, required);
+            } else {
+                waiting.add(arena);
+            }
+        }
+        for (Arena arena : waiting) {
+            if (budget <= 0) {
+                break;
+            }
+            budget -= preload(residencies.get(arena), budget);
+        }
+    }
+
+    /**
+     * Gets the amount of chunks an arena in a starting countdown has to load this tick to finish before the countdown ends.
+     *
+     * @param arena     The arena.
+     * @param residency The arena's residency.
+     * @return The amount of chunks. 0 if the arena isn't in a starting countdown.
+     */
+    private int getRequiredChunks(Arena arena, Residency residency) {
+        if (arena.getStatus() != ArenaStatus.STARTING || !ultimateGames.getCountdownManager().hasStartingCountdown(arena)) {
+            return 0;
+        }
+        int ticksLeft = ultimateGames.getCountdownManager().getStartingCountdown(arena).getTicksLeft();
+        return ticksLeft > 0 ? (residency.toLoad.size() + ticksLeft - 1) / ticksLeft : residency.toLoad.size();
+    }
+
+    /**
+     * Loads the next chunks of a residency.
+     *
+     * @param residency The residency.
+     * @param amount    The maximum amount of chunks to load.
+     * @return The amount of chunks loaded.
+     */
+    private int preload(Residency residency, int amount) {
+        int loaded = 0;
+        for (Iterator<Long> iterator = residency.toLoad.iterator(); iterator.hasNext() && loaded < amount; ) {
+            long chunk = iterator.next();
+            iterator.remove();
+            int chunkX = ChunkKey.getX(chunk);
+            int chunkZ = ChunkKey.getZ(chunk);
+            if (!residency.world.isChunkLoaded(chunkX, chunkZ)) {
+                residency.world.loadChunk(chunkX, chunkZ);
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Collects the chunks of an arena's spawnpoints, spectator spawnpoint and region, spawnpoint chunks first.
+     *
+     * @param arena The arena.
+     * @return The chunks.
+     */
+    private Set<Long> collectChunks(Arena arena) {
+        Set<Long> chunks = new LinkedHashSet<Long>();
+        List<PlayerSpawnPoint> spawnPoints = ultimateGames.getSpawnpointManager().getSpawnPointsOfArena(arena);
+        if (spawnPoints != null) {
+            for (PlayerSpawnPoint spawnPoint : spawnPoints) {
+                chunks.add(toChunk(spawnPoint.getLocation()));
+            }
+        }
+        SpectatorSpawnPoint spectatorSpawnPoint = ultimateGames.getSpawnpointManager().getSpectatorSpawnPoint(arena);
+        if (spectatorSpawnPoint != null) {
+            chunks.add(toChunk(spectatorSpawnPoint.getLocation()));
+        }
+        Region region = arena.getRegion();
+        int minChunkX = (int) Math.floor(region.getMinX()) >> 4;
+        int maxChunkX = (int) Math.floor(region.getMaxX()) >> 4;
+        int minChunkZ = (int) Math.floor(region.getMinZ()) >> 4;
+        int maxChunkZ = (int) Math.floor(region.getMaxZ()) >> 4;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                chunks.add(ChunkKey.pack(chunkX, chunkZ));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Gets the chunk a location is in.
+     *
+     * @param location The location.
+     * @return The packed chunk coordinates.
+     */
+    private static long toChunk(Location location) {
+        return ChunkKey.packBlock(location.getBlockX(), location.getBlockZ());
+    }
+
+    /**
+     * The chunks an arena holds loaded.
+     */
+    private static class Residency {
+        private final World world;
+        private final Set<Long> chunks;
+        private final List<Long> toLoad;
+        private int releaseTicks;
+
+        private Residency(World world, Set<Long> chunks) {
+            this.world = world;
+            this.chunks = chunks;
+            this.toLoad = new LinkedList<Long>(chunks);
+        }
+    }
+}
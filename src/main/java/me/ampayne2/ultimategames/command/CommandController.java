@@ -67,8 +67,11 @@ public class CommandController implements TabExecutor, Listener {
                 .addChildCommand(new Command(ultimateGames, "arena", new Permission("ultimategames.arena.all", PermissionDefault.OP), false)
                         .addChildCommand(new Create(ultimateGames))
                         .addChildCommand(new Join(ultimateGames))
+                        .addChildCommand(new JoinAny(ultimateGames))
                         .addChildCommand(new Spectate(ultimateGames))
                         .addChildCommand(new Edit(ultimateGames))
+                        .addChildCommand(new Snapshot(ultimateGames))
+                        .addChildCommand(new Chunks(ultimateGames))
                         .addChildCommand(new Open(ultimateGames))
                         .addChildCommand(new Begin(ultimateGames))
                         .addChildCommand(new End(ultimateGames))
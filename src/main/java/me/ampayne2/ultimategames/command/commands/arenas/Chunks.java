@@ -0,0 +1,72 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.command.commands.arenas;
+
+import me.ampayne2.ultimategames.UltimateGames;
+import me.ampayne2.ultimategames.arenas.Arena;
+import me.ampayne2.ultimategames.arenas.worlds.ChunkResidencyManager;
+import me.ampayne2.ultimategames.command.UGCommand;
+import org.bukkit.command.CommandSender;
+import org.bukkit.permissions.Permission;
+import org.bukkit.permissions.PermissionDefault;
+
+/**
+ * A command that shows how many chunks of an arena, or of every arena holding chunks, are loaded.
+ */
+public class Chunks extends UGCommand {
+    private final UltimateGames ultimateGames;
+
+    /**
+     * Creates the Chunks command.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     */
+    public Chunks(UltimateGames ultimateGames) {
+        super(ultimateGames, "chunks", "Shows the loaded chunks of arenas.", "/ug arena chunks [arena] [game]", new Permission("ultimategames.arena.chunks", PermissionDefault.OP), 0, 2, false);
+        this.ultimateGames = ultimateGames;
+    }
+
+    @Override
+    public void execute(String command, CommandSender sender, String[] args) {
+        ChunkResidencyManager residencyManager = ultimateGames.getChunkResidencyManager();
+        if (args.length == 1) {
+            ultimateGames.getMessenger().sendMessage(sender, "error.command.usage", getCommandUsage());
+            return;
+        } else if (args.length == 0) {
+            for (Arena arena : ultimateGames.getArenaManager().getArenas()) {
+                if (residencyManager.isResident(arena)) {
+                    ultimateGames.getMessenger().sendMessage(sender, "arenas.chunks", arena.getName(), arena.getGame().getName(), String.valueOf(residencyManager.getLoadedChunkCount(arena)), String.valueOf(residencyManager.getChunkCount(arena)));
+                }
+            }
+            ultimateGames.getMessenger().sendMessage(sender, "arenas.totalchunks", String.valueOf(residencyManager.getHeldChunkCount()));
+            return;
+        }
+        String arenaName = args[0];
+        String gameName = args[1];
+        if (!ultimateGames.getGameManager().gameExists(gameName)) {
+            ultimateGames.getMessenger().sendMessage(sender, "games.doesntexist");
+            return;
+        } else if (!ultimateGames.getArenaManager().arenaExists(arenaName, gameName)) {
+            ultimateGames.getMessenger().sendMessage(sender, "arenas.doesntexist");
+            return;
+        }
+        Arena arena = ultimateGames.getArenaManager().getArena(arenaName, gameName);
+        ultimateGames.getMessenger().sendMessage(sender, "arenas.chunks", arenaName, gameName, String.valueOf(residencyManager.getLoadedChunkCount(arena)), String.valueOf(residencyManager.getChunkCount(arena)));
+    }
+}
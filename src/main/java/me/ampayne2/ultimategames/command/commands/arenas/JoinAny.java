@@ -0,0 +1,66 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.command.commands.arenas;
+
+import me.ampayne2.ultimategames.UltimateGames;
+import me.ampayne2.ultimategames.command.UGCommand;
+import me.ampayne2.ultimategames.games.Game;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.Permission;
+import org.bukkit.permissions.PermissionDefault;
+
+/**
+ * A command that adds the sender to whichever arena of a game has room first.
+ */
+public class JoinAny extends UGCommand {
+    private final UltimateGames ultimateGames;
+
+    /**
+     * Creates the JoinAny command.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     */
+    public JoinAny(UltimateGames ultimateGames) {
+        super(ultimateGames, "joinany", "Joins any arena of a game", "/ug arena joinany <game>", new Permission("ultimategames.arena.joinany", PermissionDefault.TRUE), 1, true);
+        this.ultimateGames = ultimateGames;
+    }
+
+    @Override
+    public void execute(String command, CommandSender sender, String[] args) {
+        String gameName = args[0];
+        if (!ultimateGames.getGameManager().gameExists(gameName)) {
+            ultimateGames.getMessenger().sendMessage(sender, "games.doesntexist");
+            return;
+        }
+        Player player = (Player) sender;
+        String playerName = player.getName();
+        if (ultimateGames.getPlayerManager().isPlayerInArena(playerName)) {
+            ultimateGames.getMessenger().sendMessage(sender, "arenas.alreadyinarena");
+            return;
+        } else if (ultimateGames.getPlayerManager().isPlayerSpectatingArena(playerName)) {
+            ultimateGames.getMessenger().sendMessage(sender, "arenas.alreadyspectatingarena");
+            return;
+        }
+        Game game = ultimateGames.getGameManager().getGame(gameName);
+        if (!game.equals(ultimateGames.getMatchmaker().getQueuedGame(playerName))) {
+            ultimateGames.getMatchmaker().addPlayer(player, game);
+        }
+    }
+}
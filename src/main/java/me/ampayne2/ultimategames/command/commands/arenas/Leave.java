@@ -53,6 +53,8 @@ public class Leave extends UGCommand {
             ultimateGames.getPlayerManager().removeSpectatorFromArena((Player) sender);
         } else if (queue.isPlayerInQueue(playerName)) {
             queue.removePlayerFromQueues(player);
+        } else if (ultimateGames.getMatchmaker().isPlayerQueued(playerName)) {
+            ultimateGames.getMatchmaker().removePlayer(player);
         } else {
             ultimateGames.getMessenger().sendMessage(sender, "ultimategames.cantleave");
         }
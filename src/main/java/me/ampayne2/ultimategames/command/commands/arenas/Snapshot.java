@@ -0,0 +1,89 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.command.commands.arenas;
+
+import me.ampayne2.ultimategames.UltimateGames;
+import me.ampayne2.ultimategames.arenas.Arena;
+import me.ampayne2.ultimategames.arenas.ArenaStatus;
+import me.ampayne2.ultimategames.command.UGCommand;
+import org.bukkit.command.CommandSender;
+import org.bukkit.permissions.Permission;
+import org.bukkit.permissions.PermissionDefault;
+
+/**
+ * A command that saves a snapshot of an arena's region to restore the arena from.
+ */
+public class Snapshot extends UGCommand {
+    private final UltimateGames ultimateGames;
+    private static final int DEFAULT_MIN_Y = 0;
+    private static final int DEFAULT_MAX_Y = 255;
+
+    /**
+     * Creates the Snapshot command.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     */
+    public Snapshot(UltimateGames ultimateGames) {
+        super(ultimateGames, "snapshot", "Saves a snapshot of an arena to reset it from.", "/ug arena snapshot <arena> <game> [minY] [maxY]", new Permission("ultimategames.arena.snapshot", PermissionDefault.OP), 2, 4, false);
+        this.ultimateGames = ultimateGames;
+    }
+
+    @Override
+    public void execute(String command, CommandSender sender, String[] args) {
+        String arenaName = args[0];
+        String gameName = args[1];
+        if (!ultimateGames.getGameManager().gameExists(gameName)) {
+            ultimateGames.getMessenger().sendMessage(sender, "games.doesntexist");
+            return;
+        } else if (!ultimateGames.getArenaManager().arenaExists(arenaName, gameName)) {
+            ultimateGames.getMessenger().sendMessage(sender, "arenas.doesntexist");
+            return;
+        }
+        int minY;
+        int maxY;
+        try {
+            minY = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MIN_Y;
+            maxY = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MAX_Y;
+        } catch (NumberFormatException e) {
+            ultimateGames.getMessenger().sendMessage(sender, "arenas.invalidyrange");
+            return;
+        }
+        if (minY > maxY) {
+            ultimateGames.getMessenger().sendMessage(sender, "arenas.invalidyrange");
+            return;
+        }
+        Arena arena = ultimateGames.getArenaManager().getArena(arenaName, gameName);
+        ArenaStatus status = arena.getStatus();
+        if ((status != ArenaStatus.ARENA_STOPPED && status != ArenaStatus.OPEN) || ultimateGames.getRollbackManager().hasChanges(arena)) {
+            ultimateGames.getMessenger().sendMessage(sender, "arenas.snapshotnotclean", arenaName, gameName);
+            return;
+        }
+        if (!ultimateGames.getArenaWorldManager().loadWorld(arena)) {
+            ultimateGames.getMessenger().sendMessage(sender, "arenas.notloaded");
+            return;
+        }
+        try {
+            ultimateGames.getRollbackManager().captureSnapshot(arena, minY, maxY, sender);
+        } catch (IllegalArgumentException e) {
+            ultimateGames.getMessenger().sendMessage(sender, "arenas.invalidyrange");
+            return;
+        }
+        ultimateGames.getMessenger().sendMessage(sender, "arenas.snapshot", arenaName, gameName);
+    }
+}
@@ -23,6 +23,7 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.logging.Level;
@@ -36,6 +37,10 @@ public class ConfigAccessor {
     private final ConfigType configType;
     private final File configFile;
     private FileConfiguration fileConfiguration;
+    private boolean writeBehind = false;
+    private volatile boolean dirty = false;
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final String CHARSET = "UTF-8";
 
     /**
      * Creates a new ConfigAccessor.
@@ -90,20 +95,93 @@ public class ConfigAccessor {
     }
 
     /**
-     * Saves the config to disk.
+     * Saves the config to disk.<br>
+     * In write-behind mode the config is only marked dirty and written later by the {@link ConfigWriter}.
      */
     public ConfigAccessor saveConfig() {
         if (fileConfiguration != null) {
-            try {
-                getConfig().save(configFile);
-            } catch (IOException e) {
-                ultimateGames.getMessenger().log(Level.SEVERE, "Could not save config to " + configFile);
-                ultimateGames.getMessenger().debug(e);
+            if (writeBehind) {
+                dirty = true;
+            } else {
+                try {
+                    getConfig().save(configFile);
+                } catch (IOException e) {
+                    ultimateGames.getMessenger().log(Level.SEVERE, "Could not save config to " + configFile);
+                    ultimateGames.getMessenger().debug(e);
+                }
             }
         }
         return this;
     }
 
+    /**
+     * Sets if the config should be saved in write-behind mode.
+     *
+     * @param writeBehind True if saves should only mark the config dirty, else false.
+     */
+    public void setWriteBehind(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Checks if the config has changes that haven't been written to disk yet.
+     *
+     * @return True if the config is dirty, else false.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Serializes the config if it is dirty and marks it clean. Must be called from the main thread.
+     *
+     * @return The serialized config. Null if the config isn't dirty.
+     */
+    public String takeSnapshot() {
+        if (!dirty || fileConfiguration == null) {
+            return null;
+        }
+        dirty = false;
+        return fileConfiguration.saveToString();
+    }
+
+    /**
+     * Writes a serialized config to disk. Writes to a temporary file first and then renames it over the config file.<br>
+     * Safe to call from any thread.
+     *
+     * @param snapshot The serialized config.
+     */
+    public void writeSnapshot(String snapshot) {
+        File parent = configFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            ultimateGames.getMessenger().log(Level.SEVERE, "Could not create directory " + parent);
+            return;
+        }
+        File tempFile = new File(parent, configFile.getName() + TEMP_EXTENSION);
+        FileOutputStream out = null;
+        try {
+            out = new FileOutputStream(tempFile);
+            out.write(snapshot.getBytes(CHARSET));
+            out.flush();
+            out.getFD().sync();
+            out.close();
+            out = null;
+            if (!tempFile.renameTo(configFile) && !(configFile.delete() && tempFile.renameTo(configFile))) {
+                throw new IOException("Could not rename " + tempFile + " to " + configFile);
+            }
+        } catch (IOException e) {
+            ultimateGames.getMessenger().log(Level.SEVERE, "Could not save config to " + configFile);
+            ultimateGames.getMessenger().debug(e);
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
     /**
      * Generates the default config if it hasn't already been generated.
      */
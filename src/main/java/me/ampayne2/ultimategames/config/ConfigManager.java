@@ -23,7 +23,9 @@ import me.ampayne2.ultimategames.games.Game;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -33,6 +35,9 @@ public class ConfigManager {
     private final UltimateGames ultimateGames;
     private final Map<ConfigType, ConfigAccessor> configs = new HashMap<ConfigType, ConfigAccessor>();
     private final Map<Game, GameConfigAccessor> gameConfigs = new HashMap<Game, GameConfigAccessor>();
+    private final ConfigWriter configWriter;
+    private final boolean writeBehind;
+    private static final long DEFAULT_SAVE_INTERVAL = 40;
 
     /**
      * Creates a new ConfigManager.
@@ -44,9 +49,16 @@ public class ConfigManager {
         File dataFolder = ultimateGames.getDataFolder();
 
         ultimateGames.saveDefaultConfig();
+        long saveInterval = ultimateGames.getConfig().getLong("ConfigSaveInterval", DEFAULT_SAVE_INTERVAL);
+        writeBehind = saveInterval > 0;
         for (ConfigType configType : ConfigType.class.getEnumConstants()) {
             addConfigAccessor(new ConfigAccessor(ultimateGames, configType, dataFolder).saveDefaultConfig());
         }
+
+        configWriter = new ConfigWriter(ultimateGames, this);
+        if (writeBehind) {
+            configWriter.start(saveInterval);
+        }
     }
 
     /**
@@ -55,6 +67,7 @@ public class ConfigManager {
      * @param configAccessor The ConfigAccessor.
      */
     public void addConfigAccessor(ConfigAccessor configAccessor) {
+        configAccessor.setWriteBehind(writeBehind);
         configs.put(configAccessor.getConfigType(), configAccessor);
     }
 
@@ -86,6 +99,7 @@ public class ConfigManager {
     public void addGameConfig(Game game) {
         if (!gameConfigs.containsKey(game)) {
             GameConfigAccessor config = new GameConfigAccessor(ultimateGames, game.getName());
+            config.setWriteBehind(writeBehind);
             config.saveConfig();
             gameConfigs.put(game, config);
         }
@@ -112,4 +126,22 @@ public class ConfigManager {
     public FileConfiguration getGameConfig(Game game) {
         return getGameConfigAccessor(game).getConfig();
     }
+
+    /**
+     * Gets all of the ConfigAccessors, including game configs.
+     *
+     * @return The ConfigAccessors.
+     */
+    public List<ConfigAccessor> getConfigAccessors() {
+        List<ConfigAccessor> accessors = new ArrayList<ConfigAccessor>(configs.values());
+        accessors.addAll(gameConfigs.values());
+        return accessors;
+    }
+
+    /**
+     * Synchronously writes every dirty config to disk and stops the write-behind writer.
+     */
+    public void flush() {
+        configWriter.flush();
+    }
 }
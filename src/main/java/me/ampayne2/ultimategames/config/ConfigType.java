@@ -26,7 +26,8 @@ public enum ConfigType {
     ARENA("Arenas.yml"),
     LOBBY("Lobbies.yml"),
     SIGN("Signs.yml"),
-    CHEST("Chests.yml");
+    CHEST("Chests.yml"),
+    RATING("Ratings.yml");
 
     private final String fileName;
 
@@ -0,0 +1,95 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.config;
+
+import me.ampayne2.ultimategames.UltimateGames;
+import org.bukkit.Bukkit;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Periodically writes dirty configs to disk.<br>
+ * Configs are serialized on the main thread and written by a single background thread, so each file is written at most once per interval.
+ */
+public class ConfigWriter implements Runnable {
+    private final UltimateGames ultimateGames;
+    private final ConfigManager configManager;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    private Integer taskId = null;
+    private static final long SHUTDOWN_TIMEOUT = 30;
+
+    /**
+     * Creates a new ConfigWriter.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     * @param configManager The ConfigManager whose configs to write.
+     */
+    public ConfigWriter(UltimateGames ultimateGames, ConfigManager configManager) {
+        this.ultimateGames = ultimateGames;
+        this.configManager = configManager;
+    }
+
+    /**
+     * Starts writing dirty configs.
+     *
+     * @param interval Ticks to wait between each write.
+     */
+    public void start(long interval) {
+        if (taskId == null) {
+            taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(ultimateGames, this, interval, interval);
+        }
+    }
+
+    @Override
+    public void run() {
+        for (final ConfigAccessor configAccessor : configManager.getConfigAccessors()) {
+            final String snapshot = configAccessor.takeSnapshot();
+            if (snapshot != null) {
+                writer.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        configAccessor.writeSnapshot(snapshot);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Stops the writer and synchronously writes every dirty config.
+     */
+    public void flush() {
+        if (taskId != null) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = null;
+        }
+        run();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                ultimateGames.getMessenger().log(Level.SEVERE, "Timed out while saving configs");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.players;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A queue of players waiting for an arena.<br>
+ * Adding, removing, polling and membership checks take constant time.
+ * Each entry remembers its place in line, so positions only need renumbering after a player leaves from the middle of the queue.
+ */
+public class ArenaQueue {
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+    private Entry head = null;
+    private Entry tail = null;
+    private boolean renumber = false;
+
+    /**
+     * Adds a player to the end of the queue.
+     *
+     * @param playerName The player's name.
+     * @return True if the player was added, false if the player was already in the queue.
+     */
+    public boolean add(String playerName) {
+        if (entries.containsKey(playerName)) {
+            return false;
+        }
+        Entry entry = new Entry(playerName);
+        if (tail == null) {
+            entry.index = 0;
+            head = entry;
+        } else {
+            entry.index = tail.index + 1;
+            entry.previous = tail;
+            tail.next = entry;
+        }
+        tail = entry;
+        entries.put(playerName, entry);
+        return true;
+    }
+
+    /**
+     * Removes a player from the queue.
+     *
+     * @param playerName The player's name.
+     * @return True if the player was in the queue, else false.
+     */
+    public boolean remove(String playerName) {
+        Entry entry = entries.remove(playerName);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.previous == null) {
+            head = entry.next;
+        } else {
+            entry.previous.next = entry.next;
+        }
+        if (entry.next == null) {
+            tail = entry.previous;
+        } else {
+            entry.next.previous = entry.previous;
+            if (entry.previous != null) {
+                renumber = true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes and returns the player at the front of the queue.
+     *
+     * @return The player's name. Null if the queue is empty.
+     */
+    public String poll() {
+        if (head == null) {
+            return null;
+        }
+        String playerName = head.playerName;
+        remove(playerName);
+        return playerName;
+    }
+
+    /**
+     * Checks if a player is in the queue.
+     *
+     * @param playerName The player's name.
+     * @return True if the player is in the queue, else false.
+     */
+    public boolean contains(String playerName) {
+        return entries.containsKey(playerName);
+    }
+
+    /**
+     * Gets a player's position in the queue, starting at 1.
+     *
+     * @param playerName The player's name.
+     * @return The position. 0 if the player isn't in the queue.
+     */
+    public int getPosition(String playerName) {
+        Entry entry = entries.get(playerName);
+        if (entry == null) {
+            return 0;
+        }
+        if (renumber) {
+            int index = head.index;
+            for (Entry current = head; current != null; current = current.next) {
+                current.index = index++;
+            }
+            renumber = false;
+        }
+        return entry.index - head.index + 1;
+    }
+
+    /**
+     * Gets the players at the front of the queue, without removing them.
+     *
+     * @param amount The amount of players to get.
+     * @return The players' names.
+     */
+    public List<String> peek(int amount) {
+        List<String> players = new ArrayList<String>(Math.max(0, Math.min(amount, entries.size())));
+        for (Entry current = head; current != null && players.size() < amount; current = current.next) {
+            players.add(current.playerName);
+        }
+        return players;
+    }
+
+    /**
+     * Gets every player in the queue, in order.
+     *
+     * @return The players' names.
+     */
+    public List<String> getPlayers() {
+        return peek(entries.size());
+    }
+
+    /**
+     * Gets the amount of players in the queue.
+     *
+     * @return The size of the queue.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Checks if the queue is empty.
+     *
+     * @return True if no players are in the queue, else false.
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * A player's place in the queue.
+     */
+    private static class Entry {
+        private final String playerName;
+        private Entry previous;
+        private Entry next;
+        private int index;
+
+        private Entry(String playerName) {
+            this.playerName = playerName;
+        }
+    }
+}
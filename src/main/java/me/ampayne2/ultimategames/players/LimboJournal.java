@@ -0,0 +1,286 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.players;
+
+import me.ampayne2.ultimategames.UltimateGames;
+import org.bukkit.Bukkit;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * An append-only journal of the players in limbo.<br>
+ * Each add or remove is appended as a single record, records are written and synced in batches by a background thread,
+ * and the journal is periodically compacted down to the current set of players.
+ */
+public class LimboJournal implements Runnable {
+    private final UltimateGames ultimateGames;
+    private final File journalFile;
+    private final Set<String> limbo = new HashSet<String>();
+    private final List<String> pendingRecords = new ArrayList<String>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    private int recordsSinceCompaction = 0;
+    private Integer taskId = null;
+    private static final String FILE_NAME = "limbo.journal";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final String CHARSET = "UTF-8";
+    private static final char ADD = '+';
+    private static final char REMOVE = '-';
+    private static final char RECORD_SEPARATOR = '\n';
+    private static final long WRITE_INTERVAL = 20;
+    private static final int COMPACTION_THRESHOLD = 1024;
+    private static final long SHUTDOWN_TIMEOUT = 30;
+
+    /**
+     * Creates a new LimboJournal and rebuilds the players in limbo from the journal file.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     */
+    public LimboJournal(UltimateGames ultimateGames) {
+        this.ultimateGames = ultimateGames;
+        this.journalFile = new File(ultimateGames.getDataFolder(), FILE_NAME);
+        load();
+        taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(ultimateGames, this, WRITE_INTERVAL, WRITE_INTERVAL);
+    }
+
+    /**
+     * Checks if a player is in limbo.
+     *
+     * @param playerName The player's name.
+     * @return True if the player is in limbo, else false.
+     */
+    public boolean contains(String playerName) {
+        return limbo.contains(playerName);
+    }
+
+    /**
+     * Adds a player to limbo.
+     *
+     * @param playerName The player's name.
+     */
+    public void add(String playerName) {
+        if (limbo.add(playerName)) {
+            pendingRecords.add(ADD + playerName);
+        }
+    }
+
+    /**
+     * Adds players to limbo.
+     *
+     * @param playerNames The players' names.
+     */
+    public void addAll(Collection<String> playerNames) {
+        for (String playerName : playerNames) {
+            add(playerName);
+        }
+    }
+
+    /**
+     * Removes a player from limbo.
+     *
+     * @param playerName The player's name.
+     */
+    public void remove(String playerName) {
+        if (limbo.remove(playerName)) {
+            pendingRecords.add(REMOVE + playerName);
+        }
+    }
+
+    /**
+     * Hands the pending records to the background writer, compacting the journal if enough records have been written.
+     */
+    @Override
+    public void run() {
+        if (pendingRecords.isEmpty()) {
+            return;
+        }
+        final List<String> batch = new ArrayList<String>(pendingRecords);
+        pendingRecords.clear();
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                append(batch);
+            }
+        });
+        recordsSinceCompaction += batch.size();
+        if (recordsSinceCompaction >= COMPACTION_THRESHOLD) {
+            compact();
+        }
+    }
+
+    /**
+     * Writes the pending records, compacts the journal and stops the background writer.
+     */
+    public void close() {
+        if (taskId != null) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = null;
+        }
+        run();
+        compact();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                ultimateGames.getMessenger().log(Level.SEVERE, "Timed out while saving " + journalFile);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Schedules a rewrite of the journal containing only the players currently in limbo.
+     */
+    private void compact() {
+        final Set<String> snapshot = new HashSet<String>(limbo);
+        recordsSinceCompaction = 0;
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                rewrite(snapshot);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the players in limbo by replaying the journal. An unterminated last record is a torn write and is ignored.
+     */
+    private void load() {
+        if (!journalFile.exists()) {
+            return;
+        }
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(journalFile), CHARSET));
+            StringBuilder record = new StringBuilder();
+            int character;
+            while ((character = reader.read()) != -1) {
+                if (character == RECORD_SEPARATOR) {
+                    apply(record.toString());
+                    record.setLength(0);
+                } else {
+                    record.append((char) character);
+                }
+            }
+        } catch (IOException e) {
+            ultimateGames.getMessenger().log(Level.SEVERE, "Could not load " + journalFile);
+            ultimateGames.getMessenger().debug(e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a single journal record to the players in limbo.
+     *
+     * @param record The record.
+     */
+    private void apply(String record) {
+        if (record.length() < 2) {
+            return;
+        }
+        String playerName = record.substring(1);
+        if (record.charAt(0) == ADD) {
+            limbo.add(playerName);
+        } else if (record.charAt(0) == REMOVE) {
+            limbo.remove(playerName);
+        }
+    }
+
+    /**
+     * Appends records to the journal and syncs it to disk. Only called from the background writer.
+     *
+     * @param records The records.
+     */
+    private void append(List<String> records) {
+        write(journalFile, records, true);
+    }
+
+    /**
+     * Atomically replaces the journal with an add record for each player. Only called from the background writer.
+     *
+     * @param playerNames The players in limbo.
+     */
+    private void rewrite(Set<String> playerNames) {
+        List<String> records = new ArrayList<String>(playerNames.size());
+        for (String playerName : playerNames) {
+            records.add(ADD + playerName);
+        }
+        File tempFile = new File(journalFile.getParentFile(), FILE_NAME + TEMP_EXTENSION);
+        if (write(tempFile, records, false) && !tempFile.renameTo(journalFile) && !(journalFile.delete() && tempFile.renameTo(journalFile))) {
+            ultimateGames.getMessenger().log(Level.SEVERE, "Could not compact " + journalFile);
+        }
+    }
+
+    /**
+     * Writes records to a file and syncs it to disk.
+     *
+     * @param file    The file.
+     * @param records The records.
+     * @param append  If the records should be appended to the file.
+     * @return True if the records were written, else false.
+     */
+    private boolean write(File file, List<String> records, boolean append) {
+        StringBuilder data = new StringBuilder();
+        for (String record : records) {
+            data.append(record).append(RECORD_SEPARATOR);
+        }
+        FileOutputStream out = null;
+        try {
+            File parent = file.getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            out = new FileOutputStream(file, append);
+            out.write(data.toString().getBytes(CHARSET));
+            out.flush();
+            out.getFD().sync();
+            return true;
+        } catch (IOException e) {
+            ultimateGames.getMessenger().log(Level.SEVERE, "Could not write to " + file);
+            ultimateGames.getMessenger().debug(e);
+            return false;
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.players;
+
+import me.ampayne2.ultimategames.UltimateGames;
+import me.ampayne2.ultimategames.arenas.Arena;
+import me.ampayne2.ultimategames.arenas.ArenaStatus;
+import me.ampayne2.ultimategames.games.Game;
+import me.ampayne2.ultimategames.players.ratings.RatingManager;
+import me.ampayne2.ultimategames.utils.UGUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queues players for any arena of a game and routes them to open arenas.<br>
+ * Once per tick, waiting players are assigned in batches to OPEN or STARTING arenas,
+ * filling the arena closest to its minimum players first so its countdown starts sooner.
+ * Each arena gets the waiting player rated closest to the players already in it.
+ */
+public class Matchmaker implements Runnable {
+    private final UltimateGames ultimateGames;
+    private final Map<Game, ArenaQueue> queues = new HashMap<Game, ArenaQueue>();
+    private final Map<String, Game> queuedGames = new HashMap<String, Game>();
+    private Integer taskId = null;
+    private static final int MAX_ASSIGNMENTS_PER_TICK = 16;
+
+    /**
+     * Creates a new Matchmaker.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     */
+    public Matchmaker(UltimateGames ultimateGames) {
+        this.ultimateGames = ultimateGames;
+        taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(ultimateGames, this, 1, 1);
+    }
+
+    /**
+     * Checks to see if a player is waiting for any arena of a game.
+     *
+     * @param playerName The player's name.
+     * @return If the player is waiting or not.
+     */
+    public boolean isPlayerQueued(String playerName) {
+        return queuedGames.containsKey(playerName);
+    }
+
+    /**
+     * Gets the game a player is waiting for.
+     *
+     * @param playerName The player's name.
+     * @return The game. Null if the player isn't waiting.
+     */
+    public Game getQueuedGame(String playerName) {
+        return queuedGames.get(playerName);
+    }
+
+    /**
+     * Gets the amount of players waiting for any arena of a game.
+     *
+     * @param game The game.
+     * @return The amount of players.
+     */
+    public int getQueueSize(Game game) {
+        ArenaQueue queue = queues.get(game);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Adds a player to the matchmaking queue of a game.<br>
+     * The player is removed from any arena queue or other matchmaking queue first. Players in an arena are ignored.
+     *
+     * @param player The player.
+     * @param game   The game.
+     */
+    public void addPlayer(Player player, Game game) {
+        String playerName = player.getName();
+        if (ultimateGames.getPlayerManager().isPlayerInArena(playerName) || ultimateGames.getPlayerManager().isPlayerSpectatingArena(playerName)) {
+            return;
+        }
+        ultimateGames.getQueueManager().removePlayerFromQueues(player);
+        removePlayer(player);
+        ArenaQueue queue = queues.get(game);
+        if (queue == null) {
+            queue = new ArenaQueue();
+            queues.put(game, queue);
+        }
+        queue.add(playerName);
+        queuedGames.put(playerName, game);
+        Integer queuePosition = queue.getPosition(playerName);
+        ultimateGames.getMessenger().sendMessage(player, "matchmaking.join", game.getName(), queuePosition.toString() + UGUtils.getOrdinalSuffix(queuePosition));
+    }
+
+    /**
+     * Removes a player from the matchmaking queue they are in.
+     *
+     * @param player The player.
+     */
+    public void removePlayer(Player player) {
+        Game game = removeQueuedPlayer(player.getName());
+        if (game != null) {
+            ultimateGames.getMessenger().sendMessage(player, "matchmaking.leave", game.getName());
+        }
+    }
+
+    /**
+     * Clears the matchmaking queue of a game.
+     *
+     * @param game The game.
+     */
+    public void clearGameQueue(Game game) {
+        ArenaQueue queue = queues.remove(game);
+        if (queue != null) {
+            for (String playerName : queue.getPlayers()) {
+                queuedGames.remove(playerName);
+                Player player = Bukkit.getPlayerExact(playerName);
+                if (player != null) {
+                    ultimateGames.getMessenger().sendMessage(player, "matchmaking.leave", game.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Assigns waiting players to arenas.
+     */
+    @Override
+    public void run() {
+        if (queuedGames.isEmpty()) {
+            return;
+        }
+        for (Game game : new ArrayList<Game>(queues.keySet())) {
+            ArenaQueue queue = queues.get(game);
+            List<Arena> arenas = ultimateGames.getArenaManager().getArenasOfGame(game.getName());
+            if (queue != null && arenas != null) {
+                assignPlayers(queue, arenas);
+                if (queue.isEmpty()) {
+                    queues.remove(game);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops assigning players to arenas.
+     */
+    public void stop() {
+        if (taskId != null) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = null;
+        }
+    }
+
+    /**
+     * Assigns the players at the front of a queue to the arenas of its game.
+     *
+     * @param queue  The queue.
+     * @param arenas The arenas of the queue's game.
+     */
+    private void assignPlayers(ArenaQueue queue, List<Arena> arenas) {
+        List<Arena> joinable = new ArrayList<Arena>();
+        for (Arena arena : arenas) {
+            if (isJoinable(arena)) {
+                joinable.add(arena);
+            }
+        }
+        List<String> batch = queue.peek(MAX_ASSIGNMENTS_PER_TICK);
+        while (!batch.isEmpty() && !joinable.isEmpty()) {
+            Arena arena = selectArena(joinable);
+            String playerName = selectPlayer(batch, arena);
+            batch.remove(playerName);
+            queue.remove(playerName);
+            queuedGames.remove(playerName);
+            Player player = Bukkit.getPlayerExact(playerName);
+            if (player == null) {
+                continue;
+            }
+            ultimateGames.getPlayerManager().addPlayerToArena(player, arena, true);
+            if (!ultimateGames.getPlayerManager().isPlayerInArena(playerName)) {
+                ultimateGames.getMessenger().sendMessage(player, "matchmaking.leave", arena.getGame().getName());
+            }
+            if (!isJoinable(arena)) {
+                joinable.remove(arena);
+            }
+        }
+    }
+
+    /**
+     * Picks the arena to send the next player to.<br>
+     * Arenas that still need players to reach their minimum come first, closest to the minimum first.
+     * Once every arena has its minimum, the least loaded arena is picked.
+     *
+     * @param arenas The joinable arenas.
+     * @return The arena.
+     */
+    private Arena selectArena(List<Arena> arenas) {
+        Arena best = null;
+        int bestMissing = Integer.MAX_VALUE;
+        int bestPlayers = Integer.MAX_VALUE;
+        for (Arena arena : arenas) {
+            int players = arena.getPlayers().size();
+            int missing = Math.max(0, arena.getMinPlayers() - players);
+            if (missing > 0) {
+                if (bestMissing == 0 || missing < bestMissing) {
+                    best = arena;
+                    bestMissing = missing;
+                    bestPlayers = players;
+                }
+            } else if (bestMissing == Integer.MAX_VALUE || (bestMissing == 0 && players < bestPlayers)) {
+                best = arena;
+                bestMissing = 0;
+                bestPlayers = players;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Picks the waiting player rated closest to the average rating of an arena's players.<br>
+     * The longest waiting player is picked for an empty arena.
+     *
+     * @param batch The waiting players, longest waiting first.
+     * @param arena The arena.
+     * @return The player's name.
+     */
+    private String selectPlayer(List<String> batch, Arena arena) {
+        if (arena.getPlayers().isEmpty()) {
+            return batch.get(0);
+        }
+        RatingManager ratingManager = ultimateGames.getRatingManager();
+        Game game = arena.getGame();
+        double arenaRating = ratingManager.getAverageRating(arena.getPlayers(), game);
+        String best = null;
+        double bestDifference = Double.MAX_VALUE;
+        for (String playerName : batch) {
+            double difference = Math.abs(ratingManager.getRating(playerName, game) - arenaRating);
+            if (difference < bestDifference) {
+                best = playerName;
+                bestDifference = difference;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Checks if the matchmaker can send players to an arena.
+     *
+     * @param arena The arena.
+     * @return True if the arena is OPEN or STARTING and not full, else false.
+     */
+    private boolean isJoinable(Arena arena) {
+        ArenaStatus status = arena.getStatus();
+        return (status == ArenaStatus.OPEN || status == ArenaStatus.STARTING) && arena.getPlayers().size() < arena.getMaxPlayers();
+    }
+
+    /**
+     * Removes a player from the matchmaking queue they are in without notifying them.
+     *
+     * @param playerName The player's name.
+     * @return The game the player was waiting for. Null if the player wasn't waiting.
+     */
+    private Game removeQueuedPlayer(String playerName) {
+        Game game = queuedGames.remove(playerName);
+        if (game != null) {
+            ArenaQueue queue = queues.get(game);
+            queue.remove(playerName);
+            if (queue.isEmpty()) {
+                queues.remove(game);
+            }
+        }
+        return game;
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.players;
+
+import me.ampayne2.ultimategames.utils.ChunkKey;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * A uniform grid of the positions of the players in an arena, with one cell per chunk.<br>
+ * Positions are updated in place as players move, and a player only changes cells when crossing a chunk border.
+ * Nearest player queries search outwards from the query's cell ring by ring and stop once no unsearched cell can hold anyone closer.
+ */
+public class PlayerGrid {
+    private final Map<String, Position> positions = new HashMap<String, Position>();
+    private final Map<Long, List<Position>> cells = new HashMap<Long, List<Position>>();
+    private int minCellX = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE;
+    private int minCellZ = Integer.MAX_VALUE;
+    private int maxCellZ = Integer.MIN_VALUE;
+    private static final int CELL_SIZE = 16;
+    private static final Comparator<Neighbor> FARTHEST_FIRST = new Comparator<Neighbor>() {
+        @Override
+        public int compare(Neighbor neighbor1, Neighbor neighbor2) {
+            return Double.compare(neighbor2.distanceSquared, neighbor1.distanceSquared);
+        }
+    };
+
+    /**
+     * Updates the position of a player, adding the player to the grid if the player isn't in it.
+     *
+     * @param player   The player.
+     * @param location The player's location.
+     */
+    public void update(Player player, Location location) {
+        Position position = positions.get(player.getName());
+        int cellX = location.getBlockX() >> 4;
+        int cellZ = location.getBlockZ() >> 4;
+        long cell = ChunkKey.pack(cellX, cellZ);
+        if (position == null) {
+            position = new Position(player);
+            positions.put(player.getName(), position);
+        } else if (position.cell != cell) {
+            removeFromCell(position);
+        } else {
+            position.set(location);
+            return;
+        }
+        position.set(location);
+        position.cell = cell;
+        List<Position> cellPositions = cells.get(cell);
+        if (cellPositions == null) {
+            cellPositions = new ArrayList<Position>(2);
+            cells.put(cell, cellPositions);
+        }
+        cellPositions.add(position);
+        minCellX = Math.min(minCellX, cellX);
+        maxCellX = Math.max(maxCellX, cellX);
+        minCellZ = Math.min(minCellZ, cellZ);
+        maxCellZ = Math.max(maxCellZ, cellZ);
+    }
+
+    /**
+     * Removes a player from the grid.
+     *
+     * @param playerName The player's name.
+     */
+    public void remove(String playerName) {
+        Position position = positions.remove(playerName);
+        if (position != null) {
+            removeFromCell(position);
+        }
+    }
+
+    /**
+     * Gets the last known location of a player in the grid.
+     *
+     * @param playerName The player's name.
+     * @return The location. Null if the player isn't in the grid.
+     */
+    public Location getLocation(String playerName) {
+        Position position = positions.get(playerName);
+        return position == null ? null : new Location(position.player.getWorld(), position.x, position.y, position.z);
+    }
+
+    /**
+     * Checks if a player is in the grid.
+     *
+     * @param playerName The player's name.
+     * @return True if the player is in the grid, else false.
+     */
+    public boolean contains(String playerName) {
+        return positions.containsKey(playerName);
+    }
+
+    /**
+     * Checks if the grid has no players in it.
+     *
+     * @return True if the grid is empty, else false.
+     */
+    public boolean isEmpty() {
+        return positions.isEmpty();
+    }
+
+    /**
+     * Gets the players nearest to a location, nearest first.
+     *
+     * @param location The location.
+     * @param amount   The maximum amount of players to get.
+     * @param exclude  A player to leave out, usually the player searching. Can be null.
+     * @param among    The players to choose from. Null to choose from every player in the grid.
+     * @return The players.
+     */
+    public List<Player> getNearestPlayers(Location location, int amount, Player exclude, Collection<Player> among) {
+        if (amount <= 0 || positions.isEmpty()) {
+            return Collections.emptyList();
+        }
+        double x = location.getX();
+        double y = location.getY();
+        double z = location.getZ();
+        PriorityQueue<Neighbor> nearest = new PriorityQueue<Neighbor>(amount + 1, FARTHEST_FIRST);
+        if (among != null && among.size() * 4 < positions.size()) {
+            // Few candidates, so looking each of them up is cheaper than searching the grid
+            for (Player player : among) {
+                Position position = positions.get(player.getName());
+                if (position != null) {
+                    offer(nearest, amount, position, x, y, z, exclude, null);
+                }
+            }
+        } else {
+            Set<String> amongNames = toNames(among);
+            int cellX = location.getBlockX() >> 4;
+            int cellZ = location.getBlockZ() >> 4;
+            int maxRing = Math.max(Math.max(cellX - minCellX, maxCellX - cellX), Math.max(cellZ - minCellZ, maxCellZ - cellZ));
+            for (int ring = 0; ring <= maxRing; ring++) {
+                for (int dx = -ring; dx <= ring; dx++) {
+                    boolean edge = dx == -ring || dx == ring;
+                    for (int dz = -ring; dz <= ring; dz += edge ? 1 : 2 * ring) {
+                        List<Position> cellPositions = cells.get(ChunkKey.pack(cellX + dx, cellZ + dz));
+                        if (cellPositions != null) {
+                            for (Position position : cellPositions) {
+                                offer(nearest, amount, position, x, y, z, exclude, amongNames);
+                            }
+                        }
+                    }
+                }
+                // Every cell beyond this ring is at least ring cells away
+                double reach = ring * CELL_SIZE;
+                if (nearest.size() == amount && nearest.peek().distanceSquared <= reach * reach) {
+                    break;
+                }
+            }
+        }
+        Player[] players = new Player[nearest.size()];
+        for (int i = players.length - 1; i >= 0; i--) {
+            players[i] = nearest.poll().player;
+        }
+        List<Player> result = new ArrayList<Player>(players.length);
+        Collections.addAll(result, players);
+        return result;
+    }
+
+    /**
+     * Gets the players within a radius of a location.
+     *
+     * @param location The location.
+     * @param radius   The radius.
+     * @param exclude  A player to leave out, usually the player searching. Can be null.
+     * @param among    The players to choose from. Null to choose from every player in the grid.
+     * @return The players, in no particular order.
+     */
+    public List<Player> getPlayersWithin(Location location, double radius, Player exclude, Collection<Player> among) {
+        List<Player> players = new ArrayList<Player>();
+        double x = location.getX();
+        double y = location.getY();
+        double z = location.getZ();
+        double radiusSquared = radius * radius;
+        Set<String> amongNames = toNames(among);
+        int fromCellX = Math.max(minCellX, (int) Math.floor(x - radius) >> 4);
+        int toCellX = Math.min(maxCellX, (int) Math.floor(x + radius) >> 4);
+        int fromCellZ = Math.max(minCellZ, (int) Math.floor(z - radius) >> 4);
+        int toCellZ = Math.min(maxCellZ, (int) Math.floor(z + radius) >> 4);
+        if ((long) (toCellX - fromCellX + 1) * (toCellZ - fromCellZ + 1) > cells.size()) {
+            // The radius covers more cells than are occupied, so check the occupied cells' players directly
+            for (Position position : positions.values()) {
+                if (matches(position, exclude, amongNames) && position.distanceSquared(x, y, z) <= radiusSquared) {
+                    players.add(position.player);
+                }
+            }
+            return players;
+        }
+        for (int cellX = fromCellX; cellX <= toCellX; cellX++) {
+            for (int cellZ = fromCellZ; cellZ <= toCellZ; cellZ++) {
+                List<Position> cellPositions = cells.get(ChunkKey.pack(cellX, cellZ));
+                if (cellPositions != null) {
+                    for (Position position : cellPositions) {
+                        if (matches(position, exclude, amongNames) && position.distanceSquared(x, y, z) <= radiusSquared) {
+                            players.add(position.player);
+                        }
+                    }
+                }
+            }
+        }
+        return players;
+    }
+
+    /**
+     * Offers a player to a bounded heap of the nearest players found so far.
+     *
+     * @param nearest  The heap, farthest first.
+     * @param amount   The maximum size of the heap.
+     * @param position The player's position.
+     * @param x        The x coordinate searched from.
+     * @param y        The y coordinate searched from.
+     * @param z        The z coordinate searched from.
+     * @param exclude  A player to leave out. Can be null.
+     * @param among    The names of the players to choose from. Null to choose from every player.
+     */
+    private static void offer(PriorityQueue<Neighbor> nearest, int amount, Position position, double x, double y, double z, Player exclude, Set<String> among) {
+        if (!matches(position, exclude, among)) {
+            return;
+        }
+        double distanceSquared = position.distanceSquared(x, y, z);
+        if (nearest.size() < amount) {
+            nearest.add(new Neighbor(position.player, distanceSquared));
+        } else if (distanceSquared < nearest.peek().distanceSquared) {
+            nearest.poll();
+            nearest.add(new Neighbor(position.player, distanceSquared));
+        }
+    }
+
+    /**
+     * Checks if a player's position passes a query's filters.
+     *
+     * @param position The player's position.
+     * @param exclude  A player to leave out. Can be null.
+     * @param among    The names of the players to choose from. Null to choose from every player.
+     * @return True if the player passes the filters, else false.
+     */
+    private static boolean matches(Position position, Player exclude, Set<String> among) {
+        return !position.player.equals(exclude) && (among == null || among.contains(position.player.getName()));
+    }
+
+    /**
+     * Collects the names of a query's players once, so each scanned position is checked with a single hash lookup.
+     *
+     * @param among The players to choose from. Can be null.
+     * @return The names of the players. Null if among is null.
+     */
+    private static Set<String> toNames(Collection<Player> among) {
+        if (among == null) {
+            return null;
+        }
+        Set<String> names = new HashSet<String>(among.size() * 2);
+        for (Player player : among) {
+            names.add(player.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Removes a position from its cell, dropping the cell if it's left empty.
+     *
+     * @param position The position.
+     */
+    private void removeFromCell(Position position) {
+        List<Position> cellPositions = cells.get(position.cell);
+        if (cellPositions != null) {
+            cellPositions.remove(position);
+            if (cellPositions.isEmpty()) {
+                cells.remove(position.cell);
+            }
+        }
+    }
+
+    /**
+     * The last known position of a player.
+     */
+    private static class Position {
+        private final Player player;
+        private double x;
+        private double y;
+        private double z;
+        private long cell;
+
+        /**
+         * Creates a new Position.
+         *
+         * @param player The player.
+         */
+        private Position(Player player) {
+            this.player = player;
+        }
+
+        /**
+         * Sets the position to a location.
+         *
+         * @param location The location.
+         */
+        private void set(Location location) {
+            x = location.getX();
+            y = location.getY();
+            z = location.getZ();
+        }
+
+        /**
+         * Gets the squared distance from the position to coordinates.
+         *
+         * @param x The x coordinate.
+         * @param y The y coordinate.
+         * @param z The z coordinate.
+         * @return The squared distance.
+         */
+        private double distanceSquared(double x, double y, double z) {
+            double dx = this.x - x;
+            double dy = this.y - y;
+            double dz = this.z - z;
+            return dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    /**
+     * A player found by a nearest player query.
+     */
+    private static class Neighbor {
+        private final Player player;
+        private final double distanceSquared;
+
+        /**
+         * Creates a new Neighbor.
+         *
+         * @param player          The player.
+         * @param distanceSquared The squared distance to the player.
+         */
+        private Neighbor(Player player, double distanceSquared) {
+            this.player = player;
+            this.distanceSquared = distanceSquared;
+        }
+    }
+}
@@ -19,26 +19,38 @@
 package me.ampayne2.ultimategames.players;
 
 import me.ampayne2.ultimategames.UltimateGames;
+import me.ampayne2.ultimategames.api.JoinDestination;
 import me.ampayne2.ultimategames.arenas.Arena;
 import me.ampayne2.ultimategames.arenas.scoreboards.ArenaScoreboard;
 import me.ampayne2.ultimategames.arenas.spawnpoints.PlayerSpawnPoint;
+import me.ampayne2.ultimategames.arenas.spawnpoints.SpawnpointManager;
+import me.ampayne2.ultimategames.arenas.spawnpoints.SpectatorSpawnPoint;
+import me.ampayne2.ultimategames.config.ConfigAccessor;
 import me.ampayne2.ultimategames.config.ConfigType;
 import me.ampayne2.ultimategames.events.players.*;
 import me.ampayne2.ultimategames.players.classes.GameClass;
+import me.ampayne2.ultimategames.players.teams.Team;
 import me.ampayne2.ultimategames.signs.SignType;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.potion.PotionEffect;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Manages players both in and out of arenas.
@@ -47,6 +59,7 @@ public class PlayerManager implements Listener {
     private final UltimateGames ultimateGames;
     private Map<String, ArenaPlayer> players = new HashMap<String, ArenaPlayer>();
     private Map<String, ArenaSpectator> spectators = new HashMap<String, ArenaSpectator>();
+    private final LimboJournal limboJournal;
     private static final String LIMBO = "limbo";
 
     /**
@@ -56,6 +69,15 @@ public class PlayerManager implements Listener {
      */
     public PlayerManager(UltimateGames ultimateGames) {
         this.ultimateGames = ultimateGames;
+        limboJournal = new LimboJournal(ultimateGames);
+
+        // Move players in limbo from the old lobby config list to the journal
+        ConfigAccessor lobbyConfig = ultimateGames.getConfigManager().getConfigAccessor(ConfigType.LOBBY);
+        if (lobbyConfig.getConfig().contains(LIMBO)) {
+            limboJournal.addAll(lobbyConfig.getConfig().getStringList(LIMBO));
+            lobbyConfig.getConfig().set(LIMBO, null);
+            lobbyConfig.saveConfig();
+        }
     }
 
     /**
@@ -142,52 +164,174 @@ public class PlayerManager implements Listener {
      * @param sendMessage If a join message should be sent.
      */
     public void addPlayerToArena(Player player, Arena arena, Boolean sendMessage) {
-        String playerName = player.getName();
-        if (!players.containsKey(playerName) && arena.getPlayers().size() < arena.getMaxPlayers()) {
+        addPlayersToArena(Collections.singletonList(player), arena, sendMessage);
+    }
+
+    /**
+     * Adds players to an arena.
+     *
+     * @param players The players.
+     * @param arena   The arena.
+     */
+    public void addPlayersToArena(Collection<Player> players, Arena arena) {
+        addPlayersToArena(players, arena, true);
+    }
+
+    /**
+     * Adds players to an arena.<br>
+     * Join events are called for each player, but the arena's signs, the join message, limbo and spectator hiding are handled once for the whole batch.
+     *
+     * @param players     The players.
+     * @param arena       The arena.
+     * @param sendMessage If a join message should be sent.
+     */
+    public void addPlayersToArena(Collection<Player> players, Arena arena, Boolean sendMessage) {
+        List<Player> joinedPlayers = new ArrayList<Player>();
+        for (Player player : players) {
+            String playerName = player.getName();
+            if (this.players.containsKey(playerName) || arena.getPlayers().size() >= arena.getMaxPlayers()) {
+                continue;
+            }
             PlayerPreJoinEvent event = new PlayerPreJoinEvent(player, arena);
             Bukkit.getPluginManager().callEvent(event);
             if (event.isCancelled()) {
-                return;
+                continue;
             }
-            // Teleport the player to the lobby
-            player.teleport(ultimateGames.getLobbyManager().getLobby());
+            // Teleport the player straight to the game's join destination, or to the lobby
+            boolean atDestination = teleportToJoinDestination(player, arena, arena.getGame().getGamePlugin().getJoinDestination(player, arena), false);
 
             // Add the player to the arena and make the player an ArenaPlayer object
-            if (arena.addPlayer(player.getName()) && arena.getGame().getGamePlugin().addPlayer(player, arena)) {
-                players.put(playerName, new ArenaPlayer(ultimateGames, playerName, arena));
+            if (arena.addPlayer(playerName, false) && arena.getGame().getGamePlugin().addPlayer(player, arena)) {
+                this.players.put(playerName, new ArenaPlayer(ultimateGames, playerName, arena));
+                joinedPlayers.add(player);
                 ultimateGames.getMessenger().debug("Added player " + playerName + " to arena " + arena.getName() + " of game " + arena.getGame().getName());
+            } else if (atDestination) {
+                leaveJoinDestination(player, arena);
+            }
+        }
+        if (joinedPlayers.isEmpty()) {
+            return;
+        }
+        List<String> joinedNames = new ArrayList<String>(joinedPlayers.size());
+        for (Player player : joinedPlayers) {
+            joinedNames.add(player.getName());
+        }
 
-                // Update the arena's lobby signs
-                ultimateGames.getUGSignManager().updateUGSignsOfArena(arena, SignType.LOBBY);
+        // Update the arena's lobby signs
+        ultimateGames.getUGSignManager().updateUGSignsOfArena(arena, SignType.LOBBY);
 
-                // Send a message that the player joined to the arena
-                if (sendMessage) {
-                    ultimateGames.getMessenger().sendMessage(arena, "arenas.join", playerName, arena.getPlayers().size() + " / " + arena.getMaxPlayers());
+        // Send a message that the players joined to the arena
+        if (sendMessage) {
+            StringBuilder names = new StringBuilder();
+            for (String playerName : joinedNames) {
+                if (names.length() > 0) {
+                    names.append(", ");
                 }
+                names.append(playerName);
+            }
+            ultimateGames.getMessenger().sendMessage(arena, "arenas.join", names.toString(), arena.getPlayers().size() + " / " + arena.getMaxPlayers());
+        }
 
-                // Add the player to all of the arena's scoreboards
-                ArenaScoreboard scoreBoard = ultimateGames.getScoreboardManager().getScoreboard(arena);
-                if (scoreBoard != null) {
-                    scoreBoard.addPlayer(player);
-                }
+        ArenaScoreboard scoreBoard = ultimateGames.getScoreboardManager().getScoreboard(arena);
+        List<Player> arenaSpectators = new ArrayList<Player>();
+        for (String spectator : arena.getSpectators()) {
+            Player spectatorPlayer = Bukkit.getPlayerExact(spectator);
+            if (spectatorPlayer != null) {
+                arenaSpectators.add(spectatorPlayer);
+            }
+        }
+        for (Player player : joinedPlayers) {
+            // Add the player to all of the arena's scoreboards
+            if (scoreBoard != null) {
+                scoreBoard.addPlayer(player);
+            }
 
-                // Remove player from all queues
-                ultimateGames.getQueueManager().removePlayerFromQueues(player);
+            // Remove player from all queues
+            ultimateGames.getQueueManager().removePlayerFromQueues(player);
+            ultimateGames.getMatchmaker().removePlayer(player);
 
-                // Hide all spectators from the player
-                for (String spectator : arena.getSpectators()) {
-                    Bukkit.getPlayerExact(spectator).hidePlayer(player);
-                }
+            // Hide all spectators from the player
+            for (Player spectator : arenaSpectators) {
+                spectator.hidePlayer(player);
+            }
 
-                // Extinguish the player if on fire
-                player.setFireTicks(0);
+            // Extinguish the player if on fire
+            player.setFireTicks(0);
+        }
 
-                // Add the player to limbo in case of server crash or disconnect
-                addPlayerToLimbo(player);
+        // Add the players to limbo in case of server crash or disconnect
+        limboJournal.addAll(joinedNames);
 
-                Bukkit.getPluginManager().callEvent(new PlayerPostJoinEvent(player, arena));
+        for (Player player : joinedPlayers) {
+            Bukkit.getPluginManager().callEvent(new PlayerPostJoinEvent(player, arena));
+        }
+    }
+
+    /**
+     * Teleports a player joining an arena to a join destination.<br>
+     * A player joining as a player is locked to the spawnpoint chosen for them. If the destination can't be reached, the player is teleported to the lobby.
+     *
+     * @param player      The player.
+     * @param arena       The arena.
+     * @param destination The join destination.
+     * @param spectator   If the player is joining as a spectator.
+     * @return True if the player was teleported to the destination, false if the player was teleported to the lobby.
+     */
+    private boolean teleportToJoinDestination(Player player, Arena arena, JoinDestination destination, boolean spectator) {
+        SpawnpointManager spawnpointManager = ultimateGames.getSpawnpointManager();
+        PlayerSpawnPoint spawnPoint = null;
+        Location location = null;
+        switch (destination == null ? JoinDestination.Policy.LOBBY : destination.getPolicy()) {
+            case LOCATION:
+                location = destination.getLocation();
+                break;
+            case RANDOM_SPAWNPOINT:
+                List<PlayerSpawnPoint> spawnPoints = spawnpointManager.getSpawnPointsOfArena(arena);
+                if (spawnPoints != null && !spawnPoints.isEmpty()) {
+                    spawnPoint = spawnpointManager.getRandomSpawnPoint(arena);
+                    // Never take over a spawnpoint somebody else is locked to
+                    if (spawnPoint.getPlayer() != null && !spawnPoint.getPlayer().equals(player.getName())) {
+                        spawnPoint = spawnpointManager.getFreeSpawnPoint(arena);
+                    }
+                }
+                break;
+            case FREE_SPAWNPOINT:
+                spawnPoint = spawnpointManager.getFreeSpawnPoint(arena);
+                break;
+            case SAFEST_SPAWNPOINT:
+                spawnPoint = spawnpointManager.getSafestSpawnPoint(arena, player, 0);
+                break;
+            case SPECTATOR_SPAWNPOINT:
+                SpectatorSpawnPoint spectatorSpawnPoint = spawnpointManager.getSpectatorSpawnPoint(arena);
+                if (spectatorSpawnPoint != null) {
+                    location = spectatorSpawnPoint.getLocation();
+                }
+                break;
+            default:
+        }
+        if (spawnPoint != null) {
+            location = spawnPoint.getLocation();
+            if (!spectator && location.getWorld() != null) {
+                spawnPoint.teleportPlayer(player);
+                return true;
             }
         }
+        if (location != null && location.getWorld() != null && player.teleport(location)) {
+            return true;
+        }
+        player.teleport(ultimateGames.getLobbyManager().getLobby());
+        return false;
+    }
+
+    /**
+     * Sends a player who was teleported to a join destination but wasn't added to the arena back to the lobby, releasing any spawnpoint the player was locked to.
+     *
+     * @param player The player.
+     * @param arena  The arena.
+     */
+    private void leaveJoinDestination(Player player, Arena arena) {
+        ultimateGames.getSpawnpointManager().releasePlayer(player.getName());
+        player.teleport(ultimateGames.getLobbyManager().getLobby());
     }
 
     /**
@@ -204,8 +348,8 @@ public class PlayerManager implements Listener {
             if (event.isCancelled()) {
                 return;
             }
-            // Teleport the spectator to the lobby
-            player.teleport(ultimateGames.getLobbyManager().getLobby());
+            // Teleport the spectator straight to the game's join destination, or to the lobby
+            boolean atDestination = teleportToJoinDestination(player, arena, arena.getGame().getGamePlugin().getSpectatorJoinDestination(player, arena), true);
 
             // Add the spectator to the arena and make the spectator an ArenaSpectator object
             if (arena.addSpectator(playerName) && arena.getGame().getGamePlugin().addSpectator(player, arena)) {
@@ -219,6 +363,7 @@ public class PlayerManager implements Listener {
 
                 // Remove player from all queues
                 ultimateGames.getQueueManager().removePlayerFromQueues(player);
+                ultimateGames.getMatchmaker().removePlayer(player);
 
                 // Hide the spectator from all arena players
                 for (String normalPlayer : arena.getPlayers()) {
@@ -241,6 +386,8 @@ public class PlayerManager implements Listener {
                 addPlayerToLimbo(player);
 
                 Bukkit.getPluginManager().callEvent(new PlayerPostJoinEvent(player, arena));
+            } else if (atDestination) {
+                leaveJoinDestination(player, arena);
             }
         }
     }
@@ -269,12 +416,8 @@ public class PlayerManager implements Listener {
                 gameClass.removePlayer(playerName);
             }
 
-            // Removes the player from any spawnpoints the player is locked in
-            for (PlayerSpawnPoint spawnPoint : ultimateGames.getSpawnpointManager().getSpawnPointsOfArena(arena)) {
-                if (spawnPoint.getPlayer() != null && spawnPoint.getPlayer().equals(playerName)) {
-                    spawnPoint.teleportPlayer(null);
-                }
-            }
+            // Removes the player from any spawnpoint the player is locked in
+            ultimateGames.getSpawnpointManager().releasePlayer(playerName);
 
             // Removes the player from the arena scoreboard
             ArenaScoreboard scoreBoard = ultimateGames.getScoreboardManager().getScoreboard(arena);
@@ -337,12 +480,8 @@ public class PlayerManager implements Listener {
             arena.getGame().getGamePlugin().removeSpectator(player, arena);
             spectators.remove(playerName);
 
-            // Removes the spectator from any spawnpoints the spectator is locked in
-            for (PlayerSpawnPoint spawnPoint : ultimateGames.getSpawnpointManager().getSpawnPointsOfArena(arena)) {
-                if (spawnPoint.getPlayer() != null && spawnPoint.getPlayer().equals(playerName)) {
-                    spawnPoint.teleportPlayer(null);
-                }
-            }
+            // Removes the spectator from any spawnpoint the spectator is locked in
+            ultimateGames.getSpawnpointManager().releasePlayer(playerName);
 
             // Removes the spectator from all arena scoreboards
             ArenaScoreboard scoreBoard = ultimateGames.getScoreboardManager().getScoreboard(arena);
@@ -380,6 +519,140 @@ public class PlayerManager implements Listener {
         }
     }
 
+    /**
+     * Removes every player and spectator from an arena at once.<br>
+     * Leave events are called for each player, but the arena's signs, spawnpoints, limbo and visibility are handled once for the whole arena,
+     * and the teleports to the lobby are queued with the {@link TeleportScheduler}.
+     *
+     * @param arena The arena.
+     */
+    public void removeAllFromArena(Arena arena) {
+        removeAllFromArena(arena, null);
+    }
+
+    /**
+     * Removes every player and spectator from an arena at once.<br>
+     * Leave events are called for each player, but the arena's signs, spawnpoints, limbo and visibility are handled once for the whole arena,
+     * and the teleports to the lobby are queued with the {@link TeleportScheduler}. Players stay in limbo until their teleport has been made.
+     *
+     * @param arena    The arena.
+     * @param callback The callback to call once everybody has been teleported out of the arena, always at least a tick later. Can be null.
+     */
+    public void removeAllFromArena(Arena arena, final TeleportScheduler.TeleportCallback callback) {
+        List<String> spectatorNames = arena.getSpectators();
+        List<String> playerNames = arena.getPlayers();
+        if (playerNames.isEmpty() && spectatorNames.isEmpty()) {
+            ultimateGames.getTeleportScheduler().createBatch(arena).submit(callback);
+            return;
+        }
+
+        // Removes everybody from the arena's teams
+        for (Team team : ultimateGames.getTeamManager().getTeamsOfArena(arena)) {
+            team.removePlayers();
+        }
+
+        // Removes everybody from the arena, including listed players who are no longer online
+        List<Player> arenaSpectators = new ArrayList<Player>();
+        for (String playerName : spectatorNames) {
+            arena.removeSpectator(playerName);
+            Player spectator = Bukkit.getPlayerExact(playerName);
+            if (spectator != null && spectators.containsKey(playerName)) {
+                arena.getGame().getGamePlugin().removeSpectator(spectator, arena);
+                arenaSpectators.add(spectator);
+            }
+            spectators.remove(playerName);
+
+            // Removes the spectator from any spawnpoint the spectator is locked in
+            ultimateGames.getSpawnpointManager().releasePlayer(playerName);
+        }
+        List<Player> arenaPlayers = new ArrayList<Player>();
+        for (String playerName : playerNames) {
+            arena.removePlayer(playerName);
+            Player player = Bukkit.getPlayerExact(playerName);
+            if (player != null && players.containsKey(playerName)) {
+                arena.getGame().getGamePlugin().removePlayer(player, arena);
+                arenaPlayers.add(player);
+            }
+            players.remove(playerName);
+
+            // Removes the player from any classes the player is in
+            GameClass gameClass = ultimateGames.getGameClassManager().getPlayerClass(arena.getGame(), playerName);
+            if (gameClass != null) {
+                gameClass.removePlayer(playerName);
+            }
+
+            // Removes the player from any spawnpoint the player is locked in
+            ultimateGames.getSpawnpointManager().releasePlayer(playerName);
+        }
+
+        ArenaScoreboard scoreBoard = ultimateGames.getScoreboardManager().getScoreboard(arena);
+        for (Player spectator : arenaSpectators) {
+            // Takes away flight from the spectator
+            spectator.setAllowFlight(false);
+            spectator.setFlying(false);
+
+            // Shows the spectator to all arena players
+            for (Player player : arenaPlayers) {
+                player.showPlayer(spectator);
+            }
+        }
+        List<Player> everybody = new ArrayList<Player>(arenaSpectators);
+        everybody.addAll(arenaPlayers);
+        for (Player player : everybody) {
+            if (scoreBoard != null) {
+                scoreBoard.removePlayer(player);
+            }
+            player.setFireTicks(0);
+            for (PotionEffect potionEffect : player.getActivePotionEffects()) {
+                player.removePotionEffect(potionEffect.getType());
+            }
+        }
+
+        // Stops the arena's starting countdown since there are no players left
+        if (ultimateGames.getCountdownManager().hasStartingCountdown(arena)) {
+            ultimateGames.getCountdownManager().stopStartingCountdown(arena);
+        }
+
+        // Teleports everybody to the lobby, removing each player from limbo once the player is out of the arena
+        final List<Player> leaving = everybody;
+        TeleportScheduler.TeleportCallback evacuated = new TeleportScheduler.TeleportCallback() {
+            @Override
+            public void onTeleportsComplete(Arena arena, List<Player> arrived) {
+                Set<Player> out = new HashSet<Player>(arrived);
+                for (Player player : leaving) {
+                    // Players sent elsewhere before their turn are out of the arena too, but players who quit stay in limbo and are sent to the lobby when they log back in
+                    if (!out.contains(player) && player.isOnline()) {
+                        out.add(player);
+                    }
+                }
+                for (Player player : out) {
+                    String playerName = player.getName();
+                    if (!players.containsKey(playerName) && !spectators.containsKey(playerName)) {
+                        limboJournal.remove(playerName);
+                    }
+                }
+                if (callback != null) {
+                    callback.onTeleportsComplete(arena, arrived);
+                }
+            }
+        };
+        Location location = ultimateGames.getLobbyManager().getLobby();
+        if (location != null) {
+            ultimateGames.getTeleportScheduler().submit(arena, everybody, location, evacuated);
+        } else {
+            ultimateGames.getTeleportScheduler().createBatch(arena).submit(evacuated);
+        }
+
+        ultimateGames.getMessenger().debug("Removed " + (playerNames.size() + spectatorNames.size()) + " players from arena " + arena.getName() + " of game " + arena.getGame().getName());
+
+        for (Player spectator : arenaSpectators) {
+            Bukkit.getPluginManager().callEvent(new SpectatorLeaveEvent(spectator, arena));
+        }
+        for (Player player : arenaPlayers) {
+            Bukkit.getPluginManager().callEvent(new PlayerLeaveEvent(player, arena));
+        }
+    }
+
     /**
      * Gets the ArenaPlayer of a player in an arena.
      *
@@ -405,20 +678,8 @@ public class PlayerManager implements Listener {
      *
      * @param player The player to remove from limbo.
      */
-    @SuppressWarnings("unchecked")
     public void removePlayerFromLimbo(Player player) {
-        String playerName = player.getName();
-        List<String> playersInLimbo;
-        if (ultimateGames.getConfigManager().getConfig(ConfigType.LOBBY).contains(LIMBO)) {
-            playersInLimbo = (ArrayList<String>) ultimateGames.getConfigManager().getConfig(ConfigType.LOBBY).getList(LIMBO);
-        } else {
-            playersInLimbo = new ArrayList<String>();
-        }
-        if (playersInLimbo.contains(playerName)) {
-            playersInLimbo.remove(playerName);
-            ultimateGames.getConfigManager().getConfig(ConfigType.LOBBY).set(LIMBO, playersInLimbo);
-            ultimateGames.getConfigManager().getConfigAccessor(ConfigType.LOBBY).saveConfig();
-        }
+        limboJournal.remove(player.getName());
     }
 
     /**
@@ -426,38 +687,74 @@ public class PlayerManager implements Listener {
      *
      * @param player The player to add to limbo.
      */
-    @SuppressWarnings("unchecked")
     public void addPlayerToLimbo(Player player) {
-        String playerName = player.getName();
-        List<String> playersInLimbo;
-        if (ultimateGames.getConfigManager().getConfig(ConfigType.LOBBY).contains(LIMBO)) {
-            playersInLimbo = (ArrayList<String>) ultimateGames.getConfigManager().getConfig(ConfigType.LOBBY).getList(LIMBO);
-        } else {
-            playersInLimbo = new ArrayList<String>();
-        }
-        playersInLimbo.add(playerName);
-        ultimateGames.getConfigManager().getConfig(ConfigType.LOBBY).set(LIMBO, playersInLimbo);
-        ultimateGames.getConfigManager().getConfigAccessor(ConfigType.LOBBY).saveConfig();
+        limboJournal.add(player.getName());
+    }
+
+    /**
+     * Gets the journal of players in limbo.
+     *
+     * @return The LimboJournal.
+     */
+    public LimboJournal getLimboJournal() {
+        return limboJournal;
     }
 
     /**
      * Teleports a player in limbo to the lobby if they login and are in limbo.
      */
-    @SuppressWarnings("unchecked")
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
-        String playerName = event.getPlayer().getName();
-        List<String> playersInLimbo;
-        if (ultimateGames.getConfigManager().getConfig(ConfigType.LOBBY).contains(LIMBO)) {
-            playersInLimbo = (ArrayList<String>) ultimateGames.getConfigManager().getConfig(ConfigType.LOBBY).getList(LIMBO);
+        Player player = event.getPlayer();
+        String playerName = player.getName();
+        if (limboJournal.contains(playerName)) {
+            player.teleport(ultimateGames.getLobbyManager().getLobby());
+            limboJournal.remove(playerName);
+        }
+    }
+
+    /**
+     * Handles all player movement in arenas.<br>
+     * Keeps players inside their arena and on their locked spawnpoints, then calls the game's onPlayerMove method.
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (from.getBlockX() == to.getBlockX() && from.getBlockZ() == to.getBlockZ()) {
+            return;
+        }
+        Player player = event.getPlayer();
+        String playerName = player.getName();
+        ArenaPlayer arenaPlayer = players.get(playerName);
+        Arena arena;
+        if (arenaPlayer != null) {
+            arena = arenaPlayer.getArena();
+            arena.keepPlayerInside(player, to);
+        } else if (spectators.containsKey(playerName)) {
+            arena = spectators.get(playerName).getArena();
         } else {
-            playersInLimbo = new ArrayList<String>();
+            return;
+        }
+        PlayerSpawnPoint spawnPoint = ultimateGames.getSpawnpointManager().getLockedSpawnPoint(playerName);
+        if (spawnPoint != null) {
+            spawnPoint.keepPlayerLocked(player, from, to);
         }
-        if (playersInLimbo.contains(playerName)) {
-            Bukkit.getPlayerExact(playerName).teleport(ultimateGames.getLobbyManager().getLobby());
-            playersInLimbo.remove(playerName);
-            ultimateGames.getConfigManager().getConfig(ConfigType.LOBBY).set(LIMBO, playersInLimbo);
-            ultimateGames.getConfigManager().getConfigAccessor(ConfigType.LOBBY).saveConfig();
+        if (arenaPlayer != null) {
+            arena.getGame().getGamePlugin().onPlayerMove(arena, event);
+        }
+    }
+
+    /**
+     * Stops players and spectators from teleporting out of their arena.
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        Player player = event.getPlayer();
+        Arena arena = getPlayerArena(player.getName());
+        if (arena != null && !arena.locationIsInArena(event.getTo())) {
+            event.setCancelled(true);
+            ultimateGames.getMessenger().sendMessage(player, "protections.leave");
         }
     }
 
@@ -476,5 +773,6 @@ public class PlayerManager implements Listener {
             }
         }
         ultimateGames.getQueueManager().removePlayerFromQueues(player);
+        ultimateGames.getMatchmaker().removePlayer(player);
     }
 }
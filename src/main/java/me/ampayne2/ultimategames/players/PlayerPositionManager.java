@@ -0,0 +1,209 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.players;
+
+import me.ampayne2.ultimategames.UltimateGames;
+import me.ampayne2.ultimategames.arenas.Arena;
+import me.ampayne2.ultimategames.events.players.PlayerLeaveEvent;
+import me.ampayne2.ultimategames.events.players.PlayerPostJoinEvent;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a {@link PlayerGrid} of the positions of the players in each arena, updated from move, teleport and respawn events,
+ * for trackers, radars and games to find nearby players without checking every player in the arena.
+ */
+public class PlayerPositionManager implements Listener {
+    private final UltimateGames ultimateGames;
+    private final Map<Arena, PlayerGrid> grids = new HashMap<Arena, PlayerGrid>();
+
+    /**
+     * Creates a new PlayerPositionManager.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     */
+    public PlayerPositionManager(UltimateGames ultimateGames) {
+        this.ultimateGames = ultimateGames;
+        ultimateGames.getServer().getPluginManager().registerEvents(this, ultimateGames);
+    }
+
+    /**
+     * Gets the player nearest to a player in the player's arena.
+     *
+     * @param arena  The arena.
+     * @param player The player.
+     * @param among  The players to choose from. Null to choose from every player in the arena.
+     * @return The nearest player. Null if there is nobody to choose from.
+     */
+    public Player getNearestPlayer(Arena arena, Player player, Collection<Player> among) {
+        List<Player> nearest = getNearestPlayers(arena, player.getLocation(), 1, player, among);
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+
+    /**
+     * Gets the players in an arena nearest to a location, nearest first.
+     *
+     * @param arena    The arena.
+     * @param location The location.
+     * @param amount   The maximum amount of players to get.
+     * @param exclude  A player to leave out, usually the player searching. Can be null.
+     * @param among    The players to choose from. Null to choose from every player in the arena.
+     * @return The players.
+     */
+    public List<Player> getNearestPlayers(Arena arena, Location location, int amount, Player exclude, Collection<Player> among) {
+        PlayerGrid grid = grids.get(arena);
+        return grid == null ? Collections.<Player>emptyList() : grid.getNearestPlayers(location, amount, exclude, among);
+    }
+
+    /**
+     * Gets the players in an arena within a radius of a location.
+     *
+     * @param arena    The arena.
+     * @param location The location.
+     * @param radius   The radius.
+     * @param exclude  A player to leave out, usually the player searching. Can be null.
+     * @param among    The players to choose from. Null to choose from every player in the arena.
+     * @return The players, in no particular order.
+     */
+    public List<Player> getPlayersWithin(Arena arena, Location location, double radius, Player exclude, Collection<Player> among) {
+        PlayerGrid grid = grids.get(arena);
+        return grid == null ? Collections.<Player>emptyList() : grid.getPlayersWithin(location, radius, exclude, among);
+    }
+
+    /**
+     * Checks if a player's position is tracked in an arena's grid.
+     *
+     * @param arena      The arena.
+     * @param playerName The player's name.
+     * @return True if the player is tracked in the arena, else false.
+     */
+    public boolean isTracked(Arena arena, String playerName) {
+        PlayerGrid grid = grids.get(arena);
+        return grid != null && grid.contains(playerName);
+    }
+
+    /**
+     * Gets the last known location of a player in an arena.
+     *
+     * @param playerName The player's name.
+     * @return The location. Null if the player isn't in an arena.
+     */
+    public Location getLocation(String playerName) {
+        ArenaPlayer arenaPlayer = ultimateGames.getPlayerManager().getArenaPlayer(playerName);
+        if (arenaPlayer == null) {
+            return null;
+        }
+        PlayerGrid grid = grids.get(arenaPlayer.getArena());
+        return grid == null ? null : grid.getLocation(playerName);
+    }
+
+    /**
+     * Adds a player to the grid of the arena the player joined.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerPostJoinEvent event) {
+        Player player = event.getPlayer();
+        if (ultimateGames.getPlayerManager().isPlayerInArena(player.getName())) {
+            update(event.getArena(), player, player.getLocation());
+        }
+    }
+
+    /**
+     * Removes a player from the grid of the arena the player left.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLeave(PlayerLeaveEvent event) {
+        PlayerGrid grid = grids.get(event.getArena());
+        if (grid != null) {
+            grid.remove(event.getPlayer().getName());
+            if (grid.isEmpty()) {
+                grids.remove(event.getArena());
+            }
+        }
+    }
+
+    /**
+     * Updates the position of a player who moved.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (from.getX() != to.getX() || from.getY() != to.getY() || from.getZ() != to.getZ()) {
+            update(event.getPlayer(), to);
+        }
+    }
+
+    /**
+     * Updates the position of a player who teleported.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        update(event.getPlayer(), event.getTo());
+    }
+
+    /**
+     * Updates the position of a player who respawned.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        update(event.getPlayer(), event.getRespawnLocation());
+    }
+
+    /**
+     * Updates the position of a player, if the player is in an arena.
+     *
+     * @param player   The player.
+     * @param location The player's location.
+     */
+    private void update(Player player, Location location) {
+        ArenaPlayer arenaPlayer = ultimateGames.getPlayerManager().getArenaPlayer(player.getName());
+        if (arenaPlayer != null) {
+            update(arenaPlayer.getArena(), player, location);
+        }
+    }
+
+    /**
+     * Updates the position of a player in an arena's grid, creating the grid if the arena doesn't have one yet.
+     *
+     * @param arena    The arena.
+     * @param player   The player.
+     * @param location The player's location.
+     */
+    private void update(Arena arena, Player player, Location location) {
+        PlayerGrid grid = grids.get(arena);
+        if (grid == null) {
+            grid = new PlayerGrid();
+            grids.put(arena, grid);
+        }
+        grid.update(player, location);
+    }
+}
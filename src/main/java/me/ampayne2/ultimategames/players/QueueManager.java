@@ -35,7 +35,8 @@ import java.util.Map.Entry;
  */
 public class QueueManager {
     private final UltimateGames ultimateGames;
-    private final Map<Arena, List<String>> queue = new HashMap<Arena, List<String>>();
+    private final Map<Arena, ArenaQueue> queues = new HashMap<Arena, ArenaQueue>();
+    private final Map<String, Arena> queuedArenas = new HashMap<String, Arena>();
 
     /**
      * Creates a new QueueManager.
@@ -53,14 +54,7 @@ public class QueueManager {
      * @return If the player is in a queue or not.
      */
     public boolean isPlayerInQueue(String playerName) {
-        for (Entry<Arena, List<String>> arena : queue.entrySet()) {
-            for (String player : arena.getValue()) {
-                if (playerName.equals(player)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return queuedArenas.containsKey(playerName);
     }
 
     /**
@@ -71,14 +65,39 @@ public class QueueManager {
      * @return If the player is in the arena's queue or not.
      */
     public boolean isPlayerInQueue(String playerName, Arena arena) {
-        if (queue.containsKey(arena)) {
-            for (String player : queue.get(arena)) {
-                if (playerName.equals(player)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return arena.equals(queuedArenas.get(playerName));
+    }
+
+    /**
+     * Gets the arena whose queue a player is in.
+     *
+     * @param playerName The player's name.
+     * @return The arena. Null if the player isn't in a queue.
+     */
+    public Arena getQueuedArena(String playerName) {
+        return queuedArenas.get(playerName);
+    }
+
+    /**
+     * Gets a player's position in the queue they are in, starting at 1.
+     *
+     * @param playerName The player's name.
+     * @return The position. 0 if the player isn't in a queue.
+     */
+    public int getQueuePosition(String playerName) {
+        Arena arena = queuedArenas.get(playerName);
+        return arena == null ? 0 : queues.get(arena).getPosition(playerName);
+    }
+
+    /**
+     * Gets the amount of players in an arena's queue.
+     *
+     * @param arena The arena.
+     * @return The amount of players.
+     */
+    public int getQueueSize(Arena arena) {
+        ArenaQueue arenaQueue = queues.get(arena);
+        return arenaQueue == null ? 0 : arenaQueue.size();
     }
 
     /**
@@ -89,16 +108,8 @@ public class QueueManager {
      * @return The players.
      */
     public List<String> getNextPlayers(Integer amount, Arena arena) {
-        List<String> nextPlayers = new ArrayList<String>();
-        if (queue.containsKey(arena)) {
-            List<String> arenaQueue = queue.get(arena);
-            for (int i = 0; i < amount; i++) {
-                if (arenaQueue.size() > i) {
-                    nextPlayers.add(arenaQueue.get(i));
-                }
-            }
-        }
-        return nextPlayers;
+        ArenaQueue arenaQueue = queues.get(arena);
+        return arenaQueue == null ? new ArrayList<String>() : arenaQueue.peek(amount);
     }
 
     /**
@@ -108,9 +119,9 @@ public class QueueManager {
      * @param arena  The arena.
      */
     public void sendJoinMessage(Player player, Arena arena) {
-        Integer queuePosition = queue.get(arena).size();
+        Integer queuePosition = queues.get(arena).getPosition(player.getName());
         String position = queuePosition.toString() + UGUtils.getOrdinalSuffix(queuePosition);
-        Integer gamePosition = (int) Math.ceil((double) queue.get(arena).size() / arena.getMaxPlayers());
+        Integer gamePosition = (int) Math.ceil((double) queuePosition / arena.getMaxPlayers());
         ultimateGames.getMessenger().sendMessage(player, "queues.join", arena.getName(), arena.getGame().getName(), position, gamePosition == 1 ? "next game" : gamePosition + " games from now");
     }
 
@@ -133,13 +144,13 @@ public class QueueManager {
     public void addPlayerToQueue(Player player, Arena arena) {
         String playerName = player.getName();
         removePlayerFromQueues(player);
-        if (queue.containsKey(arena)) {
-            queue.get(arena).add(playerName);
-        } else {
-            List<String> players = new ArrayList<String>();
-            players.add(playerName);
-            queue.put(arena, players);
+        ArenaQueue arenaQueue = queues.get(arena);
+        if (arenaQueue == null) {
+            arenaQueue = new ArenaQueue();
+            queues.put(arena, arenaQueue);
         }
+        arenaQueue.add(playerName);
+        queuedArenas.put(playerName, arena);
         sendJoinMessage(player, arena);
         arena.getGame().getGamePlugin().onPlayerJoinQueue(player, arena);
     }
@@ -151,21 +162,37 @@ public class QueueManager {
      */
     public void removePlayerFromQueues(Player player) {
         String playerName = player.getName();
-        Map<Arena, List<String>> copy = new HashMap<Arena, List<String>>(queue);
-        for (Entry<Arena, List<String>> entry : queue.entrySet()) {
-            Arena arena = entry.getKey();
-            for (String queuePlayer : new ArrayList<String>(entry.getValue())) {
-                if (playerName.equals(queuePlayer)) {
-                    copy.get(arena).remove(queuePlayer);
-                    sendLeaveMessage(player, arena);
-                    if (copy.get(arena).isEmpty()) {
-                        copy.remove(arena);
-                    }
-                }
+        Arena arena = queuedArenas.remove(playerName);
+        if (arena != null) {
+            ArenaQueue arenaQueue = queues.get(arena);
+            arenaQueue.remove(playerName);
+            if (arenaQueue.isEmpty()) {
+                queues.remove(arena);
             }
+            sendLeaveMessage(player, arena);
+        }
+    }
+
+    /**
+     * Moves the players in an arena's queue to the end of another arena's queue, keeping their order.
+     *
+     * @param from The arena whose queue to move.
+     * @param to   The arena to move the queue to.
+     */
+    public void transferQueue(Arena from, Arena to) {
+        ArenaQueue fromQueue = queues.remove(from);
+        if (fromQueue == null) {
+            return;
+        }
+        ArenaQueue toQueue = queues.get(to);
+        if (toQueue == null) {
+            toQueue = new ArenaQueue();
+            queues.put(to, toQueue);
+        }
+        for (String playerName : fromQueue.getPlayers()) {
+            toQueue.add(playerName);
+            queuedArenas.put(playerName, to);
         }
-        queue.clear();
-        queue.putAll(copy);
     }
 
     /**
@@ -174,11 +201,12 @@ public class QueueManager {
      * @param arena The arena.
      */
     public void clearArenaQueue(Arena arena) {
-        if (queue.containsKey(arena)) {
-            for (String playerName : queue.get(arena)) {
+        ArenaQueue arenaQueue = queues.remove(arena);
+        if (arenaQueue != null) {
+            for (String playerName : arenaQueue.getPlayers()) {
+                queuedArenas.remove(playerName);
                 sendLeaveMessage(Bukkit.getPlayerExact(playerName), arena);
             }
-            queue.remove(arena);
         }
     }
 
@@ -186,11 +214,12 @@ public class QueueManager {
      * Clears all queues.
      */
     public void clearAllQueues() {
-        for (Entry<Arena, List<String>> entry : queue.entrySet()) {
-            for (String playerName : entry.getValue()) {
+        for (Entry<Arena, ArenaQueue> entry : queues.entrySet()) {
+            for (String playerName : entry.getValue().getPlayers()) {
                 sendLeaveMessage(Bukkit.getPlayerExact(playerName), entry.getKey());
             }
         }
-        queue.clear();
+        queues.clear();
+        queuedArenas.clear();
     }
 }
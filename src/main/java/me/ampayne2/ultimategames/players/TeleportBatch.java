@@ -0,0 +1,111 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.players;
+
+import me.ampayne2.ultimategames.arenas.Arena;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A batch of teleports for the {@link TeleportScheduler}.<br>
+ * Destinations are added one player at a time and the whole batch is submitted at once, so a single callback covers every player in it.
+ */
+public class TeleportBatch {
+    private final TeleportScheduler scheduler;
+    private final Arena arena;
+    private final Map<Player, Location> destinations = new LinkedHashMap<Player, Location>();
+
+    /**
+     * Creates a new TeleportBatch.
+     *
+     * @param scheduler The scheduler the batch will be submitted to.
+     * @param arena     The arena the batch is for. Null if the batch isn't for an arena.
+     */
+    TeleportBatch(TeleportScheduler scheduler, Arena arena) {
+        this.scheduler = scheduler;
+        this.arena = arena;
+    }
+
+    /**
+     * Adds a teleport to the batch. A player added twice is only teleported to the last location.
+     *
+     * @param player   The player.
+     * @param location The location to teleport the player to.
+     * @return The batch.
+     */
+    public TeleportBatch add(Player player, Location location) {
+        destinations.remove(player);
+        destinations.put(player, location.clone());
+        return this;
+    }
+
+    /**
+     * Adds a teleport to the same location for each of several players.
+     *
+     * @param players  The players.
+     * @param location The location to teleport the players to.
+     * @return The batch.
+     */
+    public TeleportBatch addAll(Collection<Player> players, Location location) {
+        for (Player player : players) {
+            add(player, location);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the arena the batch is for.
+     *
+     * @return The arena. Null if the batch isn't for an arena.
+     */
+    public Arena getArena() {
+        return arena;
+    }
+
+    /**
+     * Gets the amount of teleports in the batch.
+     *
+     * @return The amount of teleports.
+     */
+    public int size() {
+        return destinations.size();
+    }
+
+    /**
+     * Submits the batch to the scheduler.
+     *
+     * @param callback The callback to call once every teleport of the batch has been made. Can be null.
+     */
+    public void submit(TeleportScheduler.TeleportCallback callback) {
+        scheduler.submit(this, callback);
+    }
+
+    /**
+     * Gets the destinations of the batch.
+     *
+     * @return The destination of each player, in the order they were added.
+     */
+    Map<Player, Location> getDestinations() {
+        return destinations;
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.players;
+
+import me.ampayne2.ultimategames.UltimateGames;
+import me.ampayne2.ultimategames.arenas.Arena;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Spreads mass teleports over several ticks.<br>
+ * At most TeleportsPerTick players are teleported each tick. Batches are served by the state of their arena,
+ * players evacuated from an ending or resetting arena first, then players going into a running, starting or open arena,
+ * and each batch calls back once all of its players have arrived.
+ * A queued teleport is dropped if the player quits, is queued again, or is teleported by a plugin or command before their turn.
+ */
+public class TeleportScheduler implements Listener, Runnable {
+    private final UltimateGames ultimateGames;
+    private final List<QueuedBatch> queue = new ArrayList<QueuedBatch>();
+    private final Map<String, QueuedTeleport> pending = new HashMap<String, QueuedTeleport>();
+    private final int teleportsPerTick;
+    private long submitted = 0;
+    private boolean dispatching = false;
+    private Integer taskId = null;
+    private static final int DEFAULT_TELEPORTS_PER_TICK = 4;
+    private static final Comparator<QueuedBatch> PRIORITY = new Comparator<QueuedBatch>() {
+        @Override
+        public int compare(QueuedBatch batch1, QueuedBatch batch2) {
+            int priority1 = getPriority(batch1.arena);
+            int priority2 = getPriority(batch2.arena);
+            if (priority1 != priority2) {
+                return priority1 < priority2 ? -1 : 1;
+            }
+            return batch1.order < batch2.order ? -1 : (batch1.order == batch2.order ? 0 : 1);
+        }
+    };
+
+    /**
+     * Creates a new TeleportScheduler.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     */
+    public TeleportScheduler(UltimateGames ultimateGames) {
+        this.ultimateGames = ultimateGames;
+        this.teleportsPerTick = Math.max(1, ultimateGames.getConfig().getInt("TeleportsPerTick", DEFAULT_TELEPORTS_PER_TICK));
+        ultimateGames.getServer().getPluginManager().registerEvents(this, ultimateGames);
+        taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(ultimateGames, this, 1, 1);
+    }
+
+    /**
+     * Creates an empty batch of teleports for an arena.
+     *
+     * @param arena The arena. Null if the batch isn't for an arena.
+     * @return The batch.
+     */
+    public TeleportBatch createBatch(Arena arena) {
+        return new TeleportBatch(this, arena);
+    }
+
+    /**
+     * Submits teleports of several players to the same location.
+     *
+     * @param arena    The arena the teleports are for. Null if the teleports aren't for an arena.
+     * @param players  The players.
+     * @param location The location to teleport the players to.
+     * @param callback The callback to call once every player has been teleported. Can be null.
+     */
+    public void submit(Arena arena, Collection<Player> players, Location location, TeleportCallback callback) {
+        createBatch(arena).addAll(players, location).submit(callback);
+    }
+
+    /**
+     * Submits a batch of teleports. Any teleport already queued for a player in the batch is replaced.
+     *
+     * @param batch    The batch.
+     * @param callback The callback to call once every player of the batch has been teleported. Can be null.
+     */
+    public void submit(TeleportBatch batch, TeleportCallback callback) {
+        QueuedBatch queuedBatch = new QueuedBatch(batch.getArena(), callback, submitted++);
+        for (Map.Entry<Player, Location> destination : batch.getDestinations().entrySet()) {
+            QueuedTeleport teleport = new QueuedTeleport(destination.getKey(), destination.getValue());
+            QueuedTeleport replaced = pending.put(teleport.player.getName(), teleport);
+            if (replaced != null) {
+                replaced.cancelled = true;
+            }
+            queuedBatch.teleports.add(teleport);
+        }
+        queue.add(queuedBatch);
+        ultimateGames.getMessenger().debug("Queued " + batch.size() + " teleports" + (batch.getArena() == null ? "" : " for arena " + batch.getArena().getName() + " of game " + batch.getArena().getGame().getName()));
+    }
+
+    /**
+     * Checks if a player has a queued teleport.
+     *
+     * @param player The player.
+     * @return True if the player has a queued teleport, else false.
+     */
+    public boolean isPending(Player player) {
+        return pending.containsKey(player.getName());
+    }
+
+    /**
+     * Drops a player's queued teleport, if the player has one.
+     *
+     * @param player The player.
+     */
+    public void cancel(Player player) {
+        QueuedTeleport teleport = pending.remove(player.getName());
+        if (teleport != null) {
+            teleport.cancelled = true;
+        }
+    }
+
+    /**
+     * Gets the amount of queued teleports.
+     *
+     * @return The amount of queued teleports.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Makes up to TeleportsPerTick teleports, highest priority batches first.
+     */
+    @Override
+    public void run() {
+        if (queue.isEmpty()) {
+            return;
+        }
+        Collections.sort(queue, PRIORITY);
+        List<QueuedBatch> completed = new ArrayList<QueuedBatch>();
+        int budget = teleportsPerTick;
+        for (Iterator<QueuedBatch> iterator = queue.iterator(); iterator.hasNext(); ) {
+            QueuedBatch queuedBatch = iterator.next();
+            budget -= dispatch(queuedBatch, budget);
+            if (queuedBatch.teleports.isEmpty()) {
+                iterator.remove();
+                completed.add(queuedBatch);
+            }
+            if (budget <= 0) {
+                break;
+            }
+        }
+        complete(completed);
+    }
+
+    /**
+     * Stops the scheduler, making every queued teleport right away so nobody is left behind in an arena.<br>
+     * Batches submitted by the callbacks of the flushed batches are flushed too.
+     */
+    public void stop() {
+        if (taskId != null) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = null;
+        }
+        while (!queue.isEmpty()) {
+            Collections.sort(queue, PRIORITY);
+            List<QueuedBatch> completed = new ArrayList<QueuedBatch>(queue);
+            queue.clear();
+            for (QueuedBatch queuedBatch : completed) {
+                dispatch(queuedBatch, Integer.MAX_VALUE);
+            }
+            complete(completed);
+        }
+    }
+
+    /**
+     * Drops the queued teleport of a player who is teleported by a plugin or command before their turn, since the player has been sent somewhere else.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        if (!dispatching && (event.getCause() == PlayerTeleportEvent.TeleportCause.PLUGIN || event.getCause() == PlayerTeleportEvent.TeleportCause.COMMAND)) {
+            cancel(event.getPlayer());
+        }
+    }
+
+    /**
+     * Drops the queued teleport of a player who quits.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        cancel(event.getPlayer());
+    }
+
+    /**
+     * Makes the teleports of a batch, skipping dropped teleports without counting them.
+     *
+     * @param queuedBatch The batch.
+     * @param budget      The maximum amount of teleports to make.
+     * @return The amount of teleports made.
+     */
+    private int dispatch(QueuedBatch queuedBatch, int budget) {
+        int made = 0;
+        while (!queuedBatch.teleports.isEmpty() && (made < budget || queuedBatch.teleports.peek().cancelled)) {
+            QueuedTeleport teleport = queuedBatch.teleports.poll();
+            if (teleport.cancelled) {
+                continue;
+            }
+            pending.remove(teleport.player.getName());
+            if (!teleport.player.isOnline()) {
+                continue;
+            }
+            dispatching = true;
+            try {
+                if (teleport.player.teleport(teleport.location)) {
+                    queuedBatch.arrived.add(teleport.player);
+                }
+            } finally {
+                dispatching = false;
+            }
+            made++;
+        }
+        return made;
+    }
+
+    /**
+     * Calls the callbacks of completed batches.
+     *
+     * @param completed The completed batches.
+     */
+    private void complete(List<QueuedBatch> completed) {
+        for (QueuedBatch queuedBatch : completed) {
+            if (queuedBatch.callback != null) {
+                try {
+                    queuedBatch.callback.onTeleportsComplete(queuedBatch.arena, queuedBatch.arrived);
+                } catch (RuntimeException e) {
+                    ultimateGames.getLogger().log(Level.SEVERE, "A teleport callback" + (queuedBatch.arena == null ? "" : " of arena " + queuedBatch.arena.getName()) + " failed", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the priority of a batch by the state of its arena. Lower is served first.<br>
+     * Evacuations come first so an arena's rollback isn't held up behind unrelated joins.
+     *
+     * @param arena The arena of the batch.
+     * @return The priority.
+     */
+    private static int getPriority(Arena arena) {
+        if (arena == null) {
+            return 5;
+        }
+        switch (arena.getStatus()) {
+            case ENDING:
+            case RESETTING:
+                return 0;
+            case RUNNING:
+                return 1;
+            case STARTING:
+                return 2;
+            case OPEN:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    /**
+     * A submitted batch of teleports.
+     */
+    private static class QueuedBatch {
+        private final Arena arena;
+        private final TeleportCallback callback;
+        private final long order;
+        private final LinkedList<QueuedTeleport> teleports = new LinkedList<QueuedTeleport>();
+        private final List<Player> arrived = new ArrayList<Player>();
+
+        /**
+         * Creates a new QueuedBatch.
+         *
+         * @param arena    The arena of the batch.
+         * @param callback The callback of the batch.
+         * @param order    The order the batch was submitted in.
+         */
+        private QueuedBatch(Arena arena, TeleportCallback callback, long order) {
+            this.arena = arena;
+            this.callback = callback;
+            this.order = order;
+        }
+    }
+
+    /**
+     * A queued teleport of a single player.
+     */
+    private static class QueuedTeleport {
+        private final Player player;
+        private final Location location;
+        private boolean cancelled = false;
+
+        /**
+         * Creates a new QueuedTeleport.
+         *
+         * @param player   The player.
+         * @param location The location to teleport the player to.
+         */
+        private QueuedTeleport(Player player, Location location) {
+            this.player = player;
+            this.location = location;
+        }
+    }
+
+    /**
+     * Called when every teleport of a batch has been made.
+     */
+    public interface TeleportCallback {
+        /**
+         * Called when every teleport of a batch has been made.
+         *
+         * @param arena   The arena of the batch. Null if the batch wasn't for an arena.
+         * @param arrived The players who were teleported. Players who quit or were sent elsewhere before their turn are left out.
+         */
+        void onTeleportsComplete(Arena arena, List<Player> arrived);
+    }
+}
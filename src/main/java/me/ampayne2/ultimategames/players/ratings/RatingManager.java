@@ -0,0 +1,235 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.players.ratings;
+
+import me.ampayne2.ultimategames.UltimateGames;
+import me.ampayne2.ultimategames.arenas.Arena;
+import me.ampayne2.ultimategames.config.ConfigType;
+import me.ampayne2.ultimategames.games.Game;
+import me.ampayne2.ultimategames.players.teams.Team;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Manages the Elo rating of each player in each game.<br>
+ * Games report match results while ending an arena, and the ratings are updated when the arena ends.
+ * Ratings are kept in memory and changed ratings are periodically written to Ratings.yml.
+ */
+public class RatingManager implements Runnable {
+    private final UltimateGames ultimateGames;
+    private final Map<Game, Map<String, Double>> ratings = new HashMap<Game, Map<String, Double>>();
+    private final Map<Arena, List<List<String>>> results = new HashMap<Arena, List<List<String>>>();
+    private final Set<Game> dirtyGames = new HashSet<Game>();
+    private Integer taskId = null;
+    private static final double DEFAULT_RATING = 1500;
+    private static final double K_FACTOR = 32;
+    private static final double SCALE = 400;
+    private static final long SAVE_INTERVAL = 1200;
+
+    /**
+     * Creates a new RatingManager and loads the saved ratings.
+     *
+     * @param ultimateGames The {@link me.ampayne2.ultimategames.UltimateGames} instance.
+     */
+    public RatingManager(UltimateGames ultimateGames) {
+        this.ultimateGames = ultimateGames;
+        load();
+        taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(ultimateGames, this, SAVE_INTERVAL, SAVE_INTERVAL);
+    }
+
+    /**
+     * Gets a player's rating in a game.
+     *
+     * @param playerName The player's name.
+     * @param game       The game.
+     * @return The rating. The default rating if the player hasn't been rated in the game.
+     */
+    public double getRating(String playerName, Game game) {
+        Map<String, Double> gameRatings = ratings.get(game);
+        Double rating = gameRatings == null ? null : gameRatings.get(playerName);
+        return rating == null ? DEFAULT_RATING : rating;
+    }
+
+    /**
+     * Gets the average rating of players in a game.
+     *
+     * @param playerNames The players' names.
+     * @param game        The game.
+     * @return The average rating. The default rating if there are no players.
+     */
+    public double getAverageRating(Collection<String> playerNames, Game game) {
+        if (playerNames.isEmpty()) {
+            return DEFAULT_RATING;
+        }
+        double total = 0;
+        for (String playerName : playerNames) {
+            total += getRating(playerName, game);
+        }
+        return total / playerNames.size();
+    }
+
+    /**
+     * Reports the result of an arena's match. Should be called by the game before its arena finishes ending.
+     *
+     * @param arena      The arena.
+     * @param placements The players grouped by placement, best placement first. Each group can be a team or a single player.
+     */
+    public void reportResult(Arena arena, List<List<String>> placements) {
+        results.put(arena, placements);
+    }
+
+    /**
+     * Reports the winner of an arena's match. Every other player in the arena lost.
+     *
+     * @param arena      The arena.
+     * @param playerName The winner's name.
+     */
+    public void reportWinner(Arena arena, String playerName) {
+        List<String> losers = new ArrayList<String>(arena.getPlayers());
+        losers.remove(playerName);
+        List<List<String>> placements = new ArrayList<List<String>>();
+        placements.add(new ArrayList<String>(Collections.singletonList(playerName)));
+        placements.add(losers);
+        reportResult(arena, placements);
+    }
+
+    /**
+     * Reports the winning team of an arena's match. Every other team of the arena lost.
+     *
+     * @param team The winning team.
+     */
+    public void reportWinningTeam(Team team) {
+        Arena arena = team.getArena();
+        List<String> losers = new ArrayList<String>();
+        for (Team arenaTeam : ultimateGames.getTeamManager().getTeamsOfArena(arena)) {
+            if (!arenaTeam.equals(team)) {
+                losers.addAll(arenaTeam.getPlayers());
+            }
+        }
+        List<List<String>> placements = new ArrayList<List<String>>();
+        placements.add(new ArrayList<String>(team.getPlayers()));
+        placements.add(losers);
+        reportResult(arena, placements);
+    }
+
+    /**
+     * Updates the ratings of the players in an arena from its reported result. Does nothing if no result was reported.<br>
+     * Every placement group plays every lower placed group, using the average rating of each group.
+     *
+     * @param arena The arena.
+     */
+    public void rateMatch(Arena arena) {
+        List<List<String>> placements = results.remove(arena);
+        if (placements == null) {
+            return;
+        }
+        List<List<String>> groups = new ArrayList<List<String>>();
+        for (List<String> group : placements) {
+            if (!group.isEmpty()) {
+                groups.add(group);
+            }
+        }
+        if (groups.size() < 2) {
+            return;
+        }
+        Game game = arena.getGame();
+        double[] averages = new double[groups.size()];
+        double[] changes = new double[groups.size()];
+        for (int i = 0; i < groups.size(); i++) {
+            averages[i] = getAverageRating(groups.get(i), game);
+        }
+        double k = K_FACTOR / (groups.size() - 1);
+        for (int winner = 0; winner < groups.size(); winner++) {
+            for (int loser = winner + 1; loser < groups.size(); loser++) {
+                double expected = 1 / (1 + Math.pow(10, (averages[loser] - averages[winner]) / SCALE));
+                double change = k * (1 - expected);
+                changes[winner] += change;
+                changes[loser] -= change;
+            }
+        }
+        Map<String, Double> gameRatings = ratings.get(game);
+        if (gameRatings == null) {
+            gameRatings = new HashMap<String, Double>();
+            ratings.put(game, gameRatings);
+        }
+        for (int i = 0; i < groups.size(); i++) {
+            for (String playerName : groups.get(i)) {
+                gameRatings.put(playerName, getRating(playerName, game) + changes[i]);
+            }
+        }
+        dirtyGames.add(game);
+        ultimateGames.getMessenger().debug("Rated match of arena " + arena.getName() + " of game " + game.getName());
+    }
+
+    /**
+     * Writes changed ratings to the ratings config.
+     */
+    @Override
+    public void run() {
+        if (dirtyGames.isEmpty()) {
+            return;
+        }
+        FileConfiguration ratingConfig = ultimateGames.getConfigManager().getConfig(ConfigType.RATING);
+        for (Game game : dirtyGames) {
+            for (Map.Entry<String, Double> entry : ratings.get(game).entrySet()) {
+                ratingConfig.set(game.getName() + "." + entry.getKey(), entry.getValue());
+            }
+        }
+        dirtyGames.clear();
+        ultimateGames.getConfigManager().getConfigAccessor(ConfigType.RATING).saveConfig();
+    }
+
+    /**
+     * Stops the periodic save and writes changed ratings to the ratings config.
+     */
+    public void close() {
+        if (taskId != null) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            taskId = null;
+        }
+        run();
+    }
+
+    /**
+     * Loads the saved ratings of every loaded game.
+     */
+    private void load() {
+        FileConfiguration ratingConfig = ultimateGames.getConfigManager().getConfig(ConfigType.RATING);
+        for (Game game : ultimateGames.getGameManager().getGames()) {
+            ConfigurationSection gameSection = ratingConfig.getConfigurationSection(game.getName());
+            if (gameSection != null) {
+                Map<String, Double> gameRatings = new HashMap<String, Double>();
+                for (String playerName : gameSection.getKeys(false)) {
+                    gameRatings.put(playerName, gameSection.getDouble(playerName, DEFAULT_RATING));
+                }
+                ratings.put(game, gameRatings);
+            }
+        }
+    }
+}
@@ -20,6 +20,8 @@ package me.ampayne2.ultimategames.players.teams;
 
 import me.ampayne2.ultimategames.UltimateGames;
 import me.ampayne2.ultimategames.arenas.Arena;
+import me.ampayne2.ultimategames.games.Game;
+import me.ampayne2.ultimategames.players.ratings.RatingManager;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
@@ -31,7 +33,6 @@ import java.util.*;
 public class TeamManager {
     private final UltimateGames ultimateGames;
     private Map<Arena, List<Team>> teams = new HashMap<Arena, List<Team>>();
-    private static final Random RANDOM = new Random();
 
     /**
      * Creates a new TeamManager.
@@ -218,7 +219,8 @@ public class TeamManager {
     /**
      * Evenly sorts players in an arena into the arena's teams.<br>
      * Kicks players from the arena to stop uneven teams.<br>
-     * Players who haven't joined a team yet are kicked before players who have.
+     * Players who haven't joined a team yet are kicked before players who have.<br>
+     * Players without a team are balanced by rating, highest rated first, each going to the open team with the lowest summed rating.
      * TODO: Make the player's unlocked classes/tiers influence the sorting.
      *
      * @param arena The arena to sort the players of.
@@ -265,13 +267,48 @@ public class TeamManager {
             }
         }
 
-        // Add the players not in teams yet to the teams that need players.
+        // Add the players not in teams yet to the teams that need players, highest rated first to the weakest team.
+        final RatingManager ratingManager = ultimateGames.getRatingManager();
+        final Game game = arena.getGame();
+        final Map<String, Double> ratings = new HashMap<String, Double>();
+        for (String playerName : playersNotInTeams) {
+            ratings.put(playerName, ratingManager.getRating(playerName, game));
+        }
+        Collections.sort(playersNotInTeams, new Comparator<String>() {
+            @Override
+            public int compare(String player1, String player2) {
+                return Double.compare(ratings.get(player2), ratings.get(player1));
+            }
+        });
+        final Map<Team, Double> teamRatings = new HashMap<Team, Double>();
+        PriorityQueue<Team> openTeams = new PriorityQueue<Team>(teamAmount, new Comparator<Team>() {
+            @Override
+            public int compare(Team team1, Team team2) {
+                return Double.compare(teamRatings.get(team1), teamRatings.get(team2));
+            }
+        });
+        int teamSize = players.size() / teamAmount;
         for (Team team : arenaTeams) {
-            while ((players.size() / teamAmount) > team.getPlayers().size()) {
-                Player player = Bukkit.getPlayerExact(playersNotInTeams.get(RANDOM.nextInt(playersNotInTeams.size())));
-                team.addPlayer(player);
-                ultimateGames.getMessenger().sendMessage(player, "teams.join", team.getColor() + team.getName());
-                playersNotInTeams.remove(player.getName());
+            double teamRating = 0;
+            for (String playerName : team.getPlayers()) {
+                teamRating += ratingManager.getRating(playerName, game);
+            }
+            teamRatings.put(team, teamRating);
+            if (team.getPlayers().size() < teamSize) {
+                openTeams.add(team);
+            }
+        }
+        for (String playerName : playersNotInTeams) {
+            Team team = openTeams.poll();
+            if (team == null) {
+                break;
+            }
+            Player player = Bukkit.getPlayerExact(playerName);
+            team.addPlayer(player);
+            ultimateGames.getMessenger().sendMessage(player, "teams.join", team.getColor() + team.getName());
+            teamRatings.put(team, teamRatings.get(team) + ratings.get(playerName));
+            if (team.getPlayers().size() < teamSize) {
+                openTeams.add(team);
             }
         }
     }
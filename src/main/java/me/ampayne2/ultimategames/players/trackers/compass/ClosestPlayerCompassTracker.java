@@ -20,7 +20,6 @@ package me.ampayne2.ultimategames.players.trackers.compass;
 
 import me.ampayne2.ultimategames.UltimateGames;
 import me.ampayne2.ultimategames.arenas.Arena;
-import me.ampayne2.ultimategames.utils.UGUtils;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -34,6 +33,7 @@ import java.util.HashSet;
  * A tracker that tracks the closest player from a collection of players with the compass.
  */
 public class ClosestPlayerCompassTracker extends PlayerCompassTracker {
+    private final UltimateGames ultimateGames;
     private Collection<Player> targetPlayers;
 
     /**
@@ -46,6 +46,7 @@ public class ClosestPlayerCompassTracker extends PlayerCompassTracker {
      */
     public ClosestPlayerCompassTracker(UltimateGames ultimateGames, Player player, Collection<Player> targetPlayers, Arena arena) {
         super(ultimateGames, player, arena);
+        this.ultimateGames = ultimateGames;
         this.targetPlayers = targetPlayers;
     }
 
@@ -62,7 +63,7 @@ public class ClosestPlayerCompassTracker extends PlayerCompassTracker {
 
     @Override
     public Location getTarget() {
-        setTargetPlayer(UGUtils.getNearestPlayer(getPlayer(), targetPlayers));
+        setTargetPlayer(ultimateGames.getPlayerPositionManager().getNearestPlayer(getArena(), getPlayer(), targetPlayers));
         return super.getTarget();
     }
 
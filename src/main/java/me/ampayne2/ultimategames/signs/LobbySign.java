@@ -49,6 +49,11 @@ public class LobbySign extends UGSign {
         // TODO: Permission check
         PlayerInteractEvent interactEvent = (PlayerInteractEvent) event;
         Player player = interactEvent.getPlayer();
+        if (player.isSneaking()) {
+            // Sneak clicking a lobby sign joins any arena of its game
+            ultimateGames.getMatchmaker().addPlayer(player, arena.getGame());
+            return;
+        }
         ArenaStatus arenaStatus = arena.getStatus();
         if (arenaStatus == ArenaStatus.OPEN || arenaStatus == ArenaStatus.STARTING) {
             // TODO: Save and clear player data (inventory, armor, levels, gamemode, effects)
@@ -32,6 +32,8 @@ import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockRedstoneEvent;
 import org.bukkit.event.block.SignChangeEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
 
 import java.util.HashSet;
 import java.util.List;
@@ -100,8 +102,7 @@ public class SignListener implements Listener {
         } else if (!(event.getClickedBlock().getType() == Material.WALL_SIGN || event.getClickedBlock().getType() == Material.SIGN_POST)) {
             return;
         }
-        Sign sign = (Sign) event.getClickedBlock().getState();
-        UGSign ugSign = ultimateGames.getUGSignManager().getUGSign(sign);
+        UGSign ugSign = ultimateGames.getUGSignManager().getUGSign(event.getClickedBlock());
         if (ugSign != null && (ugSign instanceof LobbySign || ugSign instanceof ClickInputSign)) {
             ugSign.onSignTrigger(event);
         }
@@ -114,10 +115,11 @@ public class SignListener implements Listener {
      */
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onSignPower(BlockRedstoneEvent event) {
-        if (event.getBlock().getType() == Material.SIGN_POST || event.getBlock().getType() == Material.WALL_SIGN) {
-            Sign sign = (Sign) event.getBlock().getState();
-            if (ultimateGames.getUGSignManager().isUGSign(sign, SignType.REDSTONE_INPUT)) {
-                RedstoneInputSign redstoneInputSign = (RedstoneInputSign) ultimateGames.getUGSignManager().getUGSign(sign, SignType.REDSTONE_INPUT);
+        UGSign ugSign = ultimateGames.getUGSignManager().getUGSign(event.getBlock());
+        if (ugSign != null && ugSign.getSignType() == SignType.REDSTONE_INPUT) {
+            Material material = event.getBlock().getType();
+            if (material == Material.SIGN_POST || material == Material.WALL_SIGN) {
+                RedstoneInputSign redstoneInputSign = (RedstoneInputSign) ugSign;
                 if ((redstoneInputSign.isPowered() && event.getNewCurrent() == 0) || (!redstoneInputSign.isPowered() && event.getNewCurrent() > 0)) {
                     redstoneInputSign.setPowered(event.getNewCurrent() > 0);
                     redstoneInputSign.onSignTrigger(event);
@@ -134,6 +136,9 @@ public class SignListener implements Listener {
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onSignBreak(BlockBreakEvent event) {
         Block block = event.getBlock();
+        if (!ultimateGames.getUGSignManager().isProtectedBlock(block)) {
+            return;
+        }
         Set<Sign> signs = new HashSet<Sign>();
         if (block.getType() == Material.WALL_SIGN || block.getType() == Material.SIGN_POST) {
             signs.add((Sign) event.getBlock().getState());
@@ -159,4 +164,24 @@ public class SignListener implements Listener {
             }
         }
     }
+
+    /**
+     * Binds the UGSigns of a chunk when it loads.
+     *
+     * @param event The event thrown when a chunk is loaded.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        ultimateGames.getUGSignManager().bindUGSigns(event.getChunk());
+    }
+
+    /**
+     * Unbinds the UGSigns of a chunk when it unloads.
+     *
+     * @param event The event thrown when a chunk is unloaded.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        ultimateGames.getUGSignManager().unbindUGSigns(event.getChunk());
+    }
 }
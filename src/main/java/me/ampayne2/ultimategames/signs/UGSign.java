@@ -29,6 +29,7 @@ public abstract class UGSign {
     private final Sign sign;
     private final Arena arena;
     private final SignType signType;
+    private final String[] renderedLines = new String[4];
 
     /**
      * Creates a new sign
@@ -82,15 +83,36 @@ public abstract class UGSign {
     }
 
     /**
-     * Updates the UGSign.
+     * Gets the UGSign's label.
+     *
+     * @return The UGSign's label. Null if the UGSign doesn't have a label.
+     */
+    public String getLabel() {
+        return null;
+    }
+
+    /**
+     * Updates the UGSign.<br>
+     * The sign block is only updated if its lines changed since they were last rendered.
      */
     public void update() {
+        List<String> lines = getUpdatedLines();
+        boolean changed = false;
+        for (int i = 0; i < 4; i++) {
+            if (lines.size() > i && !lines.get(i).equals(renderedLines[i])) {
+                changed = true;
+                break;
+            }
+        }
+        if (!changed) {
+            return;
+        }
         Material material = sign.getLocation().getBlock().getType();
         if (material == Material.WALL_SIGN || material == Material.SIGN_POST) {
-            List<String> lines = getUpdatedLines();
             for (int i = 0; i < 4; i++) {
                 if (lines.size() > i) {
                     sign.setLine(i, lines.get(i));
+                    renderedLines[i] = lines.get(i);
                 }
             }
             sign.update();
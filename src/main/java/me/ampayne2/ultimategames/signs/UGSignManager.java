@@ -22,7 +22,11 @@ import me.ampayne2.ultimategames.UltimateGames;
 import me.ampayne2.ultimategames.arenas.Arena;
 import me.ampayne2.ultimategames.config.ConfigType;
 import me.ampayne2.ultimategames.games.Game;
+import me.ampayne2.ultimategames.utils.BlockKey;
+import me.ampayne2.ultimategames.utils.ChunkKey;
+import me.ampayne2.ultimategames.utils.UGUtils;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -37,6 +41,14 @@ import java.util.Map.Entry;
 public class UGSignManager {
     private final UltimateGames ultimateGames;
     private final Map<SignType, List<UGSign>> ugSigns = new HashMap<SignType, List<UGSign>>();
+    private final Map<String, Map<Long, UGSign>> ugSignsByLocation = new HashMap<String, Map<Long, UGSign>>();
+    private final Map<Arena, Map<SignType, List<UGSign>>> ugSignsByArena = new HashMap<Arena, Map<SignType, List<UGSign>>>();
+    private final Map<String, Map<Long, List<UGSign>>> boundUGSigns = new HashMap<String, Map<Long, List<UGSign>>>();
+    private final Map<String, Map<Long, List<UnboundUGSign>>> unboundUGSigns = new HashMap<String, Map<Long, List<UnboundUGSign>>>();
+    private final Map<String, Map<Long, Integer>> protectedBlocks = new HashMap<String, Map<Long, Integer>>();
+    private final Map<UGSign, List<Long>> ugSignProtectedBlocks = new HashMap<UGSign, List<Long>>();
+    private final Set<UGSign> pendingUpdates = new LinkedHashSet<UGSign>();
+    private Integer renderTaskId = null;
 
     public UGSignManager(UltimateGames ultimateGames) {
         this.ultimateGames = ultimateGames;
@@ -44,19 +56,60 @@ public class UGSignManager {
     }
 
     /**
-     * Checks to see if a sign is an Ultimate Game sign.<br>
-     * Faster than isUGSign(Sign sign);
+     * Gets the UG sign at block coordinates.
      *
-     * @param sign The sign to check.
+     * @param world The world name.
+     * @param x     The block's x coordinate.
+     * @param y     The block's y coordinate.
+     * @param z     The block's z coordinate.
+     * @return The UG sign. Null if there isn't a UG sign at the coordinates.
+     */
+    public UGSign getUGSign(String world, int x, int y, int z) {
+        Map<Long, UGSign> worldSigns = ugSignsByLocation.get(world);
+        return worldSigns == null ? null : worldSigns.get(BlockKey.pack(x, y, z));
+    }
+
+    /**
+     * Gets the UG sign of a block without fetching its state.
+     *
+     * @param block The block.
+     * @return The UG sign. Null if the block isn't a UG sign.
+     */
+    public UGSign getUGSign(Block block) {
+        return getUGSign(block.getWorld().getName(), block.getX(), block.getY(), block.getZ());
+    }
+
+    /**
+     * Checks to see if a block is an Ultimate Game sign without fetching its state.
+     *
+     * @param block The block to check.
+     * @return If the block is an Ultimate Game sign.
+     */
+    public boolean isUGSign(Block block) {
+        return getUGSign(block) != null;
+    }
+
+    /**
+     * Checks to see if breaking a block could break an Ultimate Game sign.<br>
+     * Protected blocks are the Ultimate Game signs and the chain of blocks each one hangs on.
+     *
+     * @param block The block to check.
+     * @return If the block is protected.
+     */
+    public boolean isProtectedBlock(Block block) {
+        Map<Long, Integer> worldBlocks = protectedBlocks.get(block.getWorld().getName());
+        return worldBlocks != null && worldBlocks.containsKey(BlockKey.pack(block));
+    }
+
+    /**
+     * Checks to see if a sign is an Ultimate Game sign of a certain type.
+     *
+     * @param sign     The sign to check.
+     * @param signType The sign's type.
      * @return If the sign is an Ultimate Game sign.
      */
     public boolean isUGSign(Sign sign, SignType signType) {
-        for (UGSign ugSign : ugSigns.get(signType)) {
-            if (sign.equals(ugSign.getSign())) {
-                return true;
-            }
-        }
-        return false;
+        return getUGSign(sign, signType) != null;
     }
 
     /**
@@ -66,14 +119,7 @@ public class UGSignManager {
      * @return If the sign is an Ultimate Game sign.
      */
     public boolean isUGSign(Sign sign) {
-        for (Entry<SignType, List<UGSign>> entry : ugSigns.entrySet()) {
-            for (UGSign ugSign : entry.getValue()) {
-                if (sign.equals(ugSign.getSign())) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return getUGSign(sign) != null;
     }
 
     /**
@@ -83,29 +129,20 @@ public class UGSignManager {
      * @return The redstone output sign. Null if doesn't exist at location.
      */
     public RedstoneOutputSign getRedstoneOutputSign(Location location) {
-        for (UGSign ugSign : ugSigns.get(SignType.REDSTONE_OUTPUT)) {
-            if (ugSign.getSign().getLocation().equals(location)) {
-                return (RedstoneOutputSign) ugSign;
-            }
-        }
-        return null;
+        UGSign ugSign = getUGSign(location.getWorld().getName(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        return ugSign instanceof RedstoneOutputSign ? (RedstoneOutputSign) ugSign : null;
     }
 
     /**
-     * Gets the UGsign of a sign.<br>
-     * Faster than getUGSign(Sign sign);
+     * Gets the UGsign of a sign with a certain type.
      *
      * @param sign     The sign.
      * @param signType The sign's type.
-     * @return The UG sign.
+     * @return The UG sign. Null if the sign isn't a UG sign of the type.
      */
     public UGSign getUGSign(Sign sign, SignType signType) {
-        for (UGSign ugSign : ugSigns.get(signType)) {
-            if (sign.equals(ugSign.getSign())) {
-                return ugSign;
-            }
-        }
-        return null;
+        UGSign ugSign = getUGSign(sign);
+        return ugSign != null && ugSign.getSignType() == signType ? ugSign : null;
     }
 
     /**
@@ -115,14 +152,7 @@ public class UGSignManager {
      * @return The UG sign.
      */
     public UGSign getUGSign(Sign sign) {
-        for (Entry<SignType, List<UGSign>> entry : ugSigns.entrySet()) {
-            for (UGSign ugSign : entry.getValue()) {
-                if (sign.equals(ugSign.getSign())) {
-                    return ugSign;
-                }
-            }
-        }
-        return null;
+        return getUGSign(sign.getWorld().getName(), sign.getX(), sign.getY(), sign.getZ());
     }
 
     /**
@@ -134,13 +164,11 @@ public class UGSignManager {
      * @return The Ultimate Game Signs.
      */
     public List<UGSign> getUGSignsOfArena(Arena arena, SignType signType) {
-        List<UGSign> signs = new ArrayList<UGSign>();
-        for (UGSign ugSign : ugSigns.get(signType)) {
-            if (ugSign.getArena().equals(arena)) {
-                signs.add(ugSign);
-            }
+        Map<SignType, List<UGSign>> arenaSigns = ugSignsByArena.get(arena);
+        if (arenaSigns == null || !arenaSigns.containsKey(signType)) {
+            return new ArrayList<UGSign>();
         }
-        return signs;
+        return new ArrayList<UGSign>(arenaSigns.get(signType));
     }
 
     /**
@@ -152,11 +180,10 @@ public class UGSignManager {
      */
     public List<UGSign> getUGSignsOfArena(Arena arena) {
         List<UGSign> signs = new ArrayList<UGSign>();
-        for (Entry<SignType, List<UGSign>> entry : ugSigns.entrySet()) {
-            for (UGSign ugSign : entry.getValue()) {
-                if (ugSign.getArena().equals(arena)) {
-                    signs.add(ugSign);
-                }
+        Map<SignType, List<UGSign>> arenaSigns = ugSignsByArena.get(arena);
+        if (arenaSigns != null) {
+            for (List<UGSign> typeSigns : arenaSigns.values()) {
+                signs.addAll(typeSigns);
             }
         }
         return signs;
@@ -199,57 +226,335 @@ public class UGSignManager {
     }
 
     /**
-     * Updates the Ultimate Game signs of an arena.<br>
+     * Queues the Ultimate Game signs of an arena for an update.<br>
      * Faster than updateUGSignsOfArena(Arena arena);
      *
      * @param arena    The arena.
      * @param signType The SignType of the signs to update.
      */
     public void updateUGSignsOfArena(Arena arena, SignType signType) {
-        for (UGSign ugSign : getUGSignsOfArena(arena, signType)) {
-            ugSign.update();
-        }
-        ultimateGames.getMessenger().debug("Updated signs of arena " + arena.getName() + " of game " + arena.getGame().getName() + " of type " + signType.name());
+        queueUpdates(getUGSignsOfArena(arena, signType));
     }
 
     /**
-     * Updates the Ultimate Game signs of an arena.
+     * Queues the Ultimate Game signs of an arena for an update.
      *
      * @param arena The arena.
      */
     public void updateUGSignsOfArena(Arena arena) {
-        for (UGSign ugSign : getUGSignsOfArena(arena)) {
-            ugSign.update();
-        }
-        ultimateGames.getMessenger().debug("Updated signs of arena " + arena.getName() + " of game " + arena.getGame().getName());
+        queueUpdates(getUGSignsOfArena(arena));
     }
 
     /**
-     * Updates the Ultimate Game signs of a game.<br>
+     * Queues the Ultimate Game signs of a game for an update.<br>
      * Faster than updateUGSignsOfGame(Game game);
      *
      * @param game     The game.
      * @param signType The SignType of the signs to update.
      */
     public void updateUGSignsOfGame(Game game, SignType signType) {
-        for (UGSign ugSign : getUGSignsOfGame(game, signType)) {
-            ugSign.update();
-        }
+        queueUpdates(getUGSignsOfGame(game, signType));
     }
 
     /**
-     * Updates the Ultimate Game signs of a game.
+     * Queues the Ultimate Game signs of a game for an update.
      *
      * @param game The game.
      */
     public void updateUGSignsOfGame(Game game) {
-        for (UGSign ugSign : getUGSignsOfGame(game)) {
+        queueUpdates(getUGSignsOfGame(game));
+    }
+
+    /**
+     * Queues signs to be updated on the next tick.<br>
+     * A sign queued several times before the next tick is only updated once.
+     *
+     * @param signs The signs to update.
+     */
+    private void queueUpdates(Collection<UGSign> signs) {
+        if (signs.isEmpty()) {
+            return;
+        }
+        if (!ultimateGames.isEnabled()) {
+            for (UGSign ugSign : signs) {
+                ugSign.update();
+            }
+            return;
+        }
+        pendingUpdates.addAll(signs);
+        if (renderTaskId == null) {
+            renderTaskId = Bukkit.getScheduler().scheduleSyncDelayedTask(ultimateGames, new Runnable() {
+                @Override
+                public void run() {
+                    renderTaskId = null;
+                    renderPendingUpdates();
+                }
+            });
+        }
+    }
+
+    /**
+     * Updates every queued sign.
+     */
+    private void renderPendingUpdates() {
+        List<UGSign> signs = new ArrayList<UGSign>(pendingUpdates);
+        pendingUpdates.clear();
+        for (UGSign ugSign : signs) {
             ugSign.update();
         }
+        ultimateGames.getMessenger().debug("Updated " + signs.size() + " signs");
     }
 
+    /**
+     * Adds a UG Sign to the manager.
+     *
+     * @param ugSign   The UG Sign.
+     * @param signType The sign's type.
+     */
     public void addUGSign(UGSign ugSign, SignType signType) {
         ugSigns.get(signType).add(ugSign);
+        Map<SignType, List<UGSign>> arenaSigns = ugSignsByArena.get(ugSign.getArena());
+        if (arenaSigns == null) {
+            arenaSigns = new EnumMap<SignType, List<UGSign>>(SignType.class);
+            ugSignsByArena.put(ugSign.getArena(), arenaSigns);
+        }
+        List<UGSign> typeSigns = arenaSigns.get(signType);
+        if (typeSigns == null) {
+            typeSigns = new ArrayList<UGSign>();
+            arenaSigns.put(signType, typeSigns);
+        }
+        typeSigns.add(ugSign);
+        Sign sign = ugSign.getSign();
+        String world = sign.getWorld().getName();
+        Map<Long, UGSign> worldSigns = ugSignsByLocation.get(world);
+        if (worldSigns == null) {
+            worldSigns = new HashMap<Long, UGSign>();
+            ugSignsByLocation.put(world, worldSigns);
+        }
+        worldSigns.put(BlockKey.pack(sign.getX(), sign.getY(), sign.getZ()), ugSign);
+        Map<Long, List<UGSign>> worldChunks = boundUGSigns.get(world);
+        if (worldChunks == null) {
+            worldChunks = new HashMap<Long, List<UGSign>>();
+            boundUGSigns.put(world, worldChunks);
+        }
+        Long chunkKey = ChunkKey.packBlock(sign.getX(), sign.getZ());
+        List<UGSign> chunkSigns = worldChunks.get(chunkKey);
+        if (chunkSigns == null) {
+            chunkSigns = new ArrayList<UGSign>(1);
+            worldChunks.put(chunkKey, chunkSigns);
+        }
+        chunkSigns.add(ugSign);
+        protectBlocks(ugSign);
+    }
+
+    /**
+     * Protects a UG Sign and the chain of blocks it hangs on.
+     *
+     * @param ugSign The UG Sign.
+     */
+    private void protectBlocks(UGSign ugSign) {
+        String world = ugSign.getSign().getWorld().getName();
+        Map<Long, Integer> worldBlocks = protectedBlocks.get(world);
+        if (worldBlocks == null) {
+            worldBlocks = new HashMap<Long, Integer>();
+            protectedBlocks.put(world, worldBlocks);
+        }
+        List<Long> keys = new ArrayList<Long>();
+        Block block = ugSign.getSign().getBlock();
+        while (block != null) {
+            Long key = BlockKey.pack(block);
+            if (keys.contains(key)) {
+                break;
+            }
+            keys.add(key);
+            Integer count = worldBlocks.get(key);
+            worldBlocks.put(key, count == null ? 1 : count + 1);
+            block = UGUtils.getSupportBlock(block);
+        }
+        ugSignProtectedBlocks.put(ugSign, keys);
+    }
+
+    /**
+     * Removes the protection of a UG Sign and the blocks it hangs on.
+     *
+     * @param ugSign The UG Sign.
+     */
+    private void unprotectBlocks(UGSign ugSign) {
+        List<Long> keys = ugSignProtectedBlocks.remove(ugSign);
+        String world = ugSign.getSign().getWorld().getName();
+        Map<Long, Integer> worldBlocks = protectedBlocks.get(world);
+        if (keys == null || worldBlocks == null) {
+            return;
+        }
+        for (Long key : keys) {
+            Integer count = worldBlocks.get(key);
+            if (count == null || count <= 1) {
+                worldBlocks.remove(key);
+            } else {
+                worldBlocks.put(key, count - 1);
+            }
+        }
+        if (worldBlocks.isEmpty()) {
+            protectedBlocks.remove(world);
+        }
+    }
+
+    /**
+     * Removes a UG Sign from the arena and location indexes and its blocks from the protected blocks.
+     *
+     * @param ugSign The UG Sign.
+     */
+    private void unindexUGSign(UGSign ugSign) {
+        pendingUpdates.remove(ugSign);
+        unprotectBlocks(ugSign);
+        Map<SignType, List<UGSign>> arenaSigns = ugSignsByArena.get(ugSign.getArena());
+        if (arenaSigns != null) {
+            List<UGSign> typeSigns = arenaSigns.get(ugSign.getSignType());
+            if (typeSigns != null) {
+                typeSigns.remove(ugSign);
+                if (typeSigns.isEmpty()) {
+                    arenaSigns.remove(ugSign.getSignType());
+                }
+            }
+            if (arenaSigns.isEmpty()) {
+                ugSignsByArena.remove(ugSign.getArena());
+            }
+        }
+        Sign sign = ugSign.getSign();
+        Map<Long, UGSign> worldSigns = ugSignsByLocation.get(sign.getWorld().getName());
+        if (worldSigns != null) {
+            worldSigns.remove(BlockKey.pack(sign.getX(), sign.getY(), sign.getZ()));
+            if (worldSigns.isEmpty()) {
+                ugSignsByLocation.remove(sign.getWorld().getName());
+            }
+        }
+        Map<Long, List<UGSign>> worldChunks = boundUGSigns.get(sign.getWorld().getName());
+        if (worldChunks != null) {
+            Long chunkKey = ChunkKey.packBlock(sign.getX(), sign.getZ());
+            List<UGSign> chunkSigns = worldChunks.get(chunkKey);
+            if (chunkSigns != null) {
+                chunkSigns.remove(ugSign);
+                if (chunkSigns.isEmpty()) {
+                    worldChunks.remove(chunkKey);
+                }
+            }
+            if (worldChunks.isEmpty()) {
+                boundUGSigns.remove(sign.getWorld().getName());
+            }
+        }
+    }
+
+    /**
+     * Keeps a UG Sign unbound until its chunk loads.
+     *
+     * @param unboundUGSign The unbound UG Sign.
+     */
+    private void addUnboundUGSign(UnboundUGSign unboundUGSign) {
+        Map<Long, List<UnboundUGSign>> worldSigns = unboundUGSigns.get(unboundUGSign.getWorld());
+        if (worldSigns == null) {
+            worldSigns = new HashMap<Long, List<UnboundUGSign>>();
+            unboundUGSigns.put(unboundUGSign.getWorld(), worldSigns);
+        }
+        Long chunkKey = ChunkKey.packBlock(unboundUGSign.getX(), unboundUGSign.getZ());
+        List<UnboundUGSign> chunkSigns = worldSigns.get(chunkKey);
+        if (chunkSigns == null) {
+            chunkSigns = new ArrayList<UnboundUGSign>();
+            worldSigns.put(chunkKey, chunkSigns);
+        }
+        chunkSigns.add(unboundUGSign);
+    }
+
+    /**
+     * Binds an unbound UG Sign to its block, then updates it so it shows the arena's current state.<br>
+     * The sign stays unbound if its block is no longer a sign.
+     *
+     * @param world         The sign's world.
+     * @param unboundUGSign The unbound UG Sign.
+     */
+    private void bindUGSign(World world, UnboundUGSign unboundUGSign) {
+        Block block = world.getBlockAt(unboundUGSign.getX(), unboundUGSign.getY(), unboundUGSign.getZ());
+        if (block.getType() == Material.WALL_SIGN || block.getType() == Material.SIGN_POST) {
+            SignType signType = unboundUGSign.getSignType();
+            UGSign ugSign = newUGSign(signType, unboundUGSign.getLabel(), (Sign) block.getState(), unboundUGSign.getArena());
+            addUGSign(ugSign, signType);
+            ugSign.update();
+        } else {
+            addUnboundUGSign(unboundUGSign);
+        }
+    }
+
+    /**
+     * Binds the unbound UG Signs of a chunk that was loaded.
+     *
+     * @param chunk The chunk.
+     */
+    public void bindUGSigns(Chunk chunk) {
+        String worldName = chunk.getWorld().getName();
+        Map<Long, List<UnboundUGSign>> worldSigns = unboundUGSigns.get(worldName);
+        if (worldSigns == null) {
+            return;
+        }
+        List<UnboundUGSign> chunkSigns = worldSigns.remove(ChunkKey.pack(chunk));
+        if (worldSigns.isEmpty()) {
+            unboundUGSigns.remove(worldName);
+        }
+        if (chunkSigns != null) {
+            for (UnboundUGSign unboundUGSign : chunkSigns) {
+                bindUGSign(chunk.getWorld(), unboundUGSign);
+            }
+        }
+    }
+
+    /**
+     * Unbinds the UG Signs of a chunk that is being unloaded, releasing their block states.
+     *
+     * @param chunk The chunk.
+     */
+    public void unbindUGSigns(Chunk chunk) {
+        String worldName = chunk.getWorld().getName();
+        Map<Long, List<UGSign>> worldChunks = boundUGSigns.get(worldName);
+        if (worldChunks == null) {
+            return;
+        }
+        List<UGSign> chunkSigns = worldChunks.get(ChunkKey.pack(chunk));
+        if (chunkSigns == null) {
+            return;
+        }
+        for (UGSign ugSign : new ArrayList<UGSign>(chunkSigns)) {
+            if (ugSign instanceof RedstoneOutputSign && ((RedstoneOutputSign) ugSign).isPowered()) {
+                ((RedstoneOutputSign) ugSign).setPowered(false);
+            }
+            Sign sign = ugSign.getSign();
+            ugSigns.get(ugSign.getSignType()).remove(ugSign);
+            unindexUGSign(ugSign);
+            addUnboundUGSign(new UnboundUGSign(ugSign.getSignType(), ugSign.getArena(), worldName, sign.getX(), sign.getY(), sign.getZ(), ugSign.getLabel()));
+        }
+    }
+
+    /**
+     * Creates a UG Sign of a certain type.
+     *
+     * @param signType The sign's type.
+     * @param label    The sign's label.
+     * @param sign     The physical sign.
+     * @param arena    The arena the sign is in.
+     * @return The UG Sign.
+     */
+    private UGSign newUGSign(SignType signType, String label, Sign sign, Arena arena) {
+        switch (signType) {
+            case LOBBY:
+                return new LobbySign(ultimateGames, sign, arena);
+            case CLICK_INPUT:
+                return new ClickInputSign(label, sign, arena);
+            case REDSTONE_INPUT:
+                return new RedstoneInputSign(label, sign, arena);
+            case TEXT_OUTPUT:
+                return new TextOutputSign(label, sign, arena);
+            case REDSTONE_OUTPUT:
+                return new RedstoneOutputSign(label, sign, arena);
+            default:
+                return null;
+        }
     }
 
     /**
@@ -283,28 +588,66 @@ public class UGSignManager {
         }
         ugSignConfig.set(signPath, ugSigns);
         ultimateGames.getConfigManager().getConfigAccessor(ConfigType.SIGN).saveConfig();
-        UGSign ugSign = null;
-        switch (signType) {
-            case LOBBY:
-                ugSign = new LobbySign(ultimateGames, sign, arena);
-                break;
-            case CLICK_INPUT:
-                ugSign = new ClickInputSign(label, sign, arena);
-                break;
-            case REDSTONE_INPUT:
-                ugSign = new RedstoneInputSign(label, sign, arena);
-                break;
-            case TEXT_OUTPUT:
-                ugSign = new TextOutputSign(label, sign, arena);
-                break;
-            case REDSTONE_OUTPUT:
-                ugSign = new RedstoneOutputSign(label, sign, arena);
-                break;
-        }
+        UGSign ugSign = newUGSign(signType, label, sign, arena);
         addUGSign(ugSign, signType);
         return ugSign;
     }
 
+    /**
+     * Copies the UG Signs inside an arena's region to another arena, without saving them to the config.<br>
+     * The sign blocks must already exist at the copied locations.
+     *
+     * @param from    The arena to copy from.
+     * @param to      The arena to copy to.
+     * @param offsetX The x offset of the copies.
+     * @param offsetZ The z offset of the copies.
+     */
+    public void copyUGSigns(Arena from, Arena to, int offsetX, int offsetZ) {
+        World world = to.getRegion().getWorld();
+        for (UGSign ugSign : getUGSignsOfArena(from)) {
+            Sign sign = ugSign.getSign();
+            if (from.locationIsInArena(sign.getLocation())) {
+                Block block = world.getBlockAt(sign.getX() + offsetX, sign.getY(), sign.getZ() + offsetZ);
+                if (block.getType() == Material.WALL_SIGN || block.getType() == Material.SIGN_POST) {
+                    addUGSign(newUGSign(ugSign.getSignType(), ugSign.getLabel(), (Sign) block.getState(), to), ugSign.getSignType());
+                }
+            }
+        }
+        updateUGSignsOfArena(to);
+    }
+
+    /**
+     * Removes every UG Sign of an arena from the manager, without removing them from the config.
+     *
+     * @param arena The arena.
+     */
+    public void removeUGSignsOfArena(Arena arena) {
+        for (UGSign ugSign : getUGSignsOfArena(arena)) {
+            if (ugSign instanceof RedstoneOutputSign && ((RedstoneOutputSign) ugSign).isPowered()) {
+                ((RedstoneOutputSign) ugSign).setPowered(false);
+            }
+            ugSigns.get(ugSign.getSignType()).remove(ugSign);
+            unindexUGSign(ugSign);
+        }
+        for (Iterator<Map<Long, List<UnboundUGSign>>> worldIterator = unboundUGSigns.values().iterator(); worldIterator.hasNext(); ) {
+            Map<Long, List<UnboundUGSign>> worldSigns = worldIterator.next();
+            for (Iterator<List<UnboundUGSign>> chunkIterator = worldSigns.values().iterator(); chunkIterator.hasNext(); ) {
+                List<UnboundUGSign> chunkSigns = chunkIterator.next();
+                for (Iterator<UnboundUGSign> signIterator = chunkSigns.iterator(); signIterator.hasNext(); ) {
+                    if (signIterator.next().getArena().equals(arena)) {
+                        signIterator.remove();
+                    }
+                }
+                if (chunkSigns.isEmpty()) {
+                    chunkIterator.remove();
+                }
+            }
+            if (worldSigns.isEmpty()) {
+                worldIterator.remove();
+            }
+        }
+    }
+
     /**
      * Removes a UG Sign from the manager and config.
      *
@@ -339,14 +682,23 @@ public class UGSignManager {
                 ultimateGames.getConfigManager().getConfigAccessor(ConfigType.SIGN).saveConfig();
             }
             ugSigns.get(signType).remove(ugSign);
+            unindexUGSign(ugSign);
         }
     }
 
     /**
-     * Loads all of the Ultimate Game signs.
+     * Loads all of the Ultimate Game signs.<br>
+     * Signs in loaded chunks are bound right away, the rest are bound when their chunk loads.
      */
     public void loadUGSigns() {
         ugSigns.clear();
+        ugSignsByLocation.clear();
+        ugSignsByArena.clear();
+        boundUGSigns.clear();
+        unboundUGSigns.clear();
+        protectedBlocks.clear();
+        ugSignProtectedBlocks.clear();
+        pendingUpdates.clear();
         FileConfiguration ugSignConfig = ultimateGames.getConfigManager().getConfig(ConfigType.SIGN);
         for (SignType signType : EnumSet.allOf(SignType.class)) {
             ugSigns.put(signType, new ArrayList<UGSign>());
@@ -358,36 +710,8 @@ public class UGSignManager {
                         for (String arenaKey : ugSignConfig.getConfigurationSection(gamePath).getKeys(false)) {
                             if (ultimateGames.getArenaManager().arenaExists(arenaKey, gameKey)) {
                                 String arenaPath = gamePath + "." + arenaKey;
-                                List<List<String>> ugSigns = (List<List<String>>) ugSignConfig.getList(arenaPath);
-                                for (List<String> signInfo : ugSigns) {
-                                    World world = Bukkit.getWorld(signInfo.get(0));
-                                    Integer x = Integer.parseInt(signInfo.get(1));
-                                    Integer y = Integer.parseInt(signInfo.get(2));
-                                    Integer z = Integer.parseInt(signInfo.get(3));
-                                    Block locBlock = new Location(world, x, y, z).getBlock();
-                                    if (locBlock.getType() == Material.WALL_SIGN || locBlock.getType() == Material.SIGN_POST) {
-                                        Arena arena = ultimateGames.getArenaManager().getArena(arenaKey, gameKey);
-                                        UGSign ugSign = null;
-                                        switch (signType) {
-                                            case LOBBY:
-                                                ugSign = new LobbySign(ultimateGames, (Sign) locBlock.getState(), arena);
-                                                break;
-                                            case CLICK_INPUT:
-                                                ugSign = new ClickInputSign(signInfo.get(4), (Sign) locBlock.getState(), arena);
-                                                break;
-                                            case REDSTONE_INPUT:
-                                                ugSign = new RedstoneInputSign(signInfo.get(4), (Sign) locBlock.getState(), arena);
-                                                break;
-                                            case TEXT_OUTPUT:
-                                                ugSign = new TextOutputSign(signInfo.get(4), (Sign) locBlock.getState(), arena);
-                                                break;
-                                            case REDSTONE_OUTPUT:
-                                                ugSign = new RedstoneOutputSign(signInfo.get(4), (Sign) locBlock.getState(), arena);
-                                                break;
-                                        }
-                                        addUGSign(ugSign, signType);
-                                    }
-                                }
+                                Arena arena = ultimateGames.getArenaManager().getArena(arenaKey, gameKey);
+                                loadUGSigns(signType, arena, (List<List<String>>) ugSignConfig.getList(arenaPath));
                             }
                         }
                     }
@@ -395,4 +719,44 @@ public class UGSignManager {
             }
         }
     }
+
+    /**
+     * Loads the Ultimate Game signs of arenas that were built after the signs were loaded, such as arenas built when their world loads.
+     *
+     * @param arenas The arenas.
+     */
+    public void loadUGSigns(Collection<Arena> arenas) {
+        FileConfiguration ugSignConfig = ultimateGames.getConfigManager().getConfig(ConfigType.SIGN);
+        for (Arena arena : arenas) {
+            for (SignType signType : EnumSet.allOf(SignType.class)) {
+                List<?> signInfos = ugSignConfig.getList(signType.toString() + "." + arena.getGame().getName() + "." + arena.getName());
+                if (signInfos != null) {
+                    loadUGSigns(signType, arena, (List<List<String>>) signInfos);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the Ultimate Game signs of a type of an arena from their config entries.
+     *
+     * @param signType  The type of the signs.
+     * @param arena     The arena of the signs.
+     * @param signInfos The config entries of the signs.
+     */
+    private void loadUGSigns(SignType signType, Arena arena, List<List<String>> signInfos) {
+        for (List<String> signInfo : signInfos) {
+            int x = Integer.parseInt(signInfo.get(1));
+            int y = Integer.parseInt(signInfo.get(2));
+            int z = Integer.parseInt(signInfo.get(3));
+            String label = signType.hasLabel() ? signInfo.get(4) : null;
+            UnboundUGSign unboundUGSign = new UnboundUGSign(signType, arena, signInfo.get(0), x, y, z, label);
+            World world = Bukkit.getWorld(signInfo.get(0));
+            if (world != null && world.isChunkLoaded(x >> 4, z >> 4)) {
+                bindUGSign(world, unboundUGSign);
+            } else {
+                addUnboundUGSign(unboundUGSign);
+            }
+        }
+    }
 }
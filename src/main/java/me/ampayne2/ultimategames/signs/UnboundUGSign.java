@@ -0,0 +1,119 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.signs;
+
+import me.ampayne2.ultimategames.arenas.Arena;
+
+/**
+ * A UG Sign whose chunk isn't loaded.<br>
+ * Holds what is needed to bind the sign once its chunk loads, without holding onto the block.
+ */
+public class UnboundUGSign {
+    private final SignType signType;
+    private final Arena arena;
+    private final String world;
+    private final int x;
+    private final int y;
+    private final int z;
+    private final String label;
+
+    /**
+     * Creates a new UnboundUGSign.
+     *
+     * @param signType The sign's type.
+     * @param arena    The arena of the sign.
+     * @param world    The name of the sign's world.
+     * @param x        The sign's x coordinate.
+     * @param y        The sign's y coordinate.
+     * @param z        The sign's z coordinate.
+     * @param label    The sign's label. Null if the sign type doesn't have a label.
+     */
+    public UnboundUGSign(SignType signType, Arena arena, String world, int x, int y, int z, String label) {
+        this.signType = signType;
+        this.arena = arena;
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.label = label;
+    }
+
+    /**
+     * Gets the sign's type.
+     *
+     * @return The sign's type.
+     */
+    public SignType getSignType() {
+        return signType;
+    }
+
+    /**
+     * Gets the arena of the sign.
+     *
+     * @return The arena.
+     */
+    public Arena getArena() {
+        return arena;
+    }
+
+    /**
+     * Gets the name of the sign's world.
+     *
+     * @return The world name.
+     */
+    public String getWorld() {
+        return world;
+    }
+
+    /**
+     * Gets the sign's x coordinate.
+     *
+     * @return The x coordinate.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Gets the sign's y coordinate.
+     *
+     * @return The y coordinate.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Gets the sign's z coordinate.
+     *
+     * @return The z coordinate.
+     */
+    public int getZ() {
+        return z;
+    }
+
+    /**
+     * Gets the sign's label.
+     *
+     * @return The label. Null if the sign type doesn't have a label.
+     */
+    public String getLabel() {
+        return label;
+    }
+}
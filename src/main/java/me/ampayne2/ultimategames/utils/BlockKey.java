@@ -0,0 +1,100 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.utils;
+
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+
+/**
+ * Packs block coordinates into a single long.<br>
+ * x and z take 26 bits each and y takes 12 bits, which covers every block of a world.
+ */
+public final class BlockKey {
+    private static final int XZ_BITS = 26;
+    private static final int Y_BITS = 12;
+    private static final long XZ_MASK = (1L << XZ_BITS) - 1;
+    private static final long Y_MASK = (1L << Y_BITS) - 1;
+    private static final int X_SHIFT = XZ_BITS + Y_BITS;
+    private static final int Z_SHIFT = Y_BITS;
+
+    private BlockKey() {
+    }
+
+    /**
+     * Packs block coordinates.
+     *
+     * @param x The block's x coordinate.
+     * @param y The block's y coordinate.
+     * @param z The block's z coordinate.
+     * @return The packed coordinates.
+     */
+    public static long pack(int x, int y, int z) {
+        return ((x & XZ_MASK) << X_SHIFT) | ((z & XZ_MASK) << Z_SHIFT) | (y & Y_MASK);
+    }
+
+    /**
+     * Packs the coordinates of a block.
+     *
+     * @param block The block.
+     * @return The packed coordinates.
+     */
+    public static long pack(Block block) {
+        return pack(block.getX(), block.getY(), block.getZ());
+    }
+
+    /**
+     * Packs the block coordinates of a location.
+     *
+     * @param location The location.
+     * @return The packed coordinates.
+     */
+    public static long pack(Location location) {
+        return pack(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Gets the x coordinate of packed coordinates.
+     *
+     * @param key The packed coordinates.
+     * @return The x coordinate.
+     */
+    public static int getX(long key) {
+        return (int) (key >> X_SHIFT);
+    }
+
+    /**
+     * Gets the y coordinate of packed coordinates.
+     *
+     * @param key The packed coordinates.
+     * @return The y coordinate.
+     */
+    public static int getY(long key) {
+        return (int) (key << (Long.SIZE - Y_BITS) >> (Long.SIZE - Y_BITS));
+    }
+
+    /**
+     * Gets the z coordinate of packed coordinates.
+     *
+     * @param key The packed coordinates.
+     * @return The z coordinate.
+     */
+    public static int getZ(long key) {
+        return (int) (key << XZ_BITS >> (XZ_BITS + Y_BITS));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of UltimateGames.
+ *
+ * Copyright (c) 2013-2013, UltimateGames <http://github.com/ampayne2/>
+ *
+ * UltimateGames is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * UltimateGames is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with UltimateGames.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package me.ampayne2.ultimategames.utils;
+
+import org.bukkit.Chunk;
+
+/**
+ * Packs chunk coordinates into a single long.
+ */
+public final class ChunkKey {
+    private ChunkKey() {
+    }
+
+    /**
+     * Packs chunk coordinates.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @return The packed coordinates.
+     */
+    public static long pack(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Packs the coordinates of a chunk.
+     *
+     * @param chunk The chunk.
+     * @return The packed coordinates.
+     */
+    public static long pack(Chunk chunk) {
+        return pack(chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Packs the coordinates of the chunk a block is in.
+     *
+     * @param x The block's x coordinate.
+     * @param z The block's z coordinate.
+     * @return The packed coordinates.
+     */
+    public static long packBlock(int x, int z) {
+        return pack(x >> 4, z >> 4);
+    }
+
+    /**
+     * Gets the x coordinate of packed chunk coordinates.
+     *
+     * @param key The packed coordinates.
+     * @return The chunk's x coordinate.
+     */
+    public static int getX(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Gets the z coordinate of packed chunk coordinates.
+     *
+     * @param key The packed coordinates.
+     * @return The chunk's z coordinate.
+     */
+    public static int getZ(long key) {
+        return (int) key;
+    }
+}
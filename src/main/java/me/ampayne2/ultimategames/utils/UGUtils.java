@@ -19,8 +19,10 @@
 package me.ampayne2.ultimategames.utils;
 
 import me.ampayne2.ultimategames.UltimateGames;
+import me.ampayne2.ultimategames.arenas.Arena;
 import me.ampayne2.ultimategames.effects.ParticleEffect;
 import me.ampayne2.ultimategames.games.Game;
+import me.ampayne2.ultimategames.players.PlayerPositionManager;
 import org.bukkit.*;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
@@ -267,21 +269,73 @@ public final class UGUtils {
     public static void radarScan(String playerName, Collection<String> playersToScan, ParticleEffect particleEffect, int speed, int amount) {
         if (playersToScan != null && playerName != null) {
             Player player = Bukkit.getPlayerExact(playerName);
-            Double playerX = player.getLocation().getX();
-            Double playerY = player.getEyeLocation().getY();
-            Double playerZ = player.getLocation().getZ();
+            if (player == null) {
+                return;
+            }
+            PlayerPositionManager playerPositionManager = UltimateGames.getInstance().getPlayerPositionManager();
+            List<Location> targets = new ArrayList<Location>(playersToScan.size());
             for (String nextPlayerToScan : playersToScan) {
-                Player playerToScan = Bukkit.getPlayerExact(nextPlayerToScan);
-                Double playerToScanX = playerToScan.getLocation().getX();
-                Double playerToScanZ = playerToScan.getLocation().getZ();
-                Double x = playerToScanX - playerX;
-                Double z = playerToScanZ - playerZ;
-                Double divisor = Math.sqrt((x * x) + (z * z)) / 2;
-                Double relativeX = x / divisor;
-                Double relativeZ = z / divisor;
-                Location particleLocation = new Location(player.getWorld(), playerX + relativeX, playerY + 1, playerZ + relativeZ);
-                particleEffect.display(particleLocation, 0, 0, 0, speed, amount, player);
+                Location target = playerPositionManager.getLocation(nextPlayerToScan);
+                if (target == null) {
+                    Player playerToScan = Bukkit.getPlayerExact(nextPlayerToScan);
+                    if (playerToScan == null) {
+                        continue;
+                    }
+                    target = playerToScan.getLocation();
+                }
+                targets.add(target);
+            }
+            pointRadar(player, targets, particleEffect, speed, amount);
+        }
+    }
+
+    /**
+     * Creates particles floating around a player pointing at the other players of an arena within a radius.
+     *
+     * @param player         The main player.
+     * @param arena          The arena.
+     * @param radius         The radius of the radar.
+     * @param particleEffect The ParticleEffect to play.
+     * @param speed          The speed of the particle effect.
+     * @param amount         The amount of particles.
+     */
+    public static void radarScan(Player player, Arena arena, double radius, ParticleEffect particleEffect, int speed, int amount) {
+        PlayerPositionManager playerPositionManager = UltimateGames.getInstance().getPlayerPositionManager();
+        List<Location> targets = new ArrayList<Location>();
+        for (Player playerToScan : playerPositionManager.getPlayersWithin(arena, player.getLocation(), radius, player, null)) {
+            Location target = playerPositionManager.getLocation(playerToScan.getName());
+            if (target != null) {
+                targets.add(target);
+            }
+        }
+        pointRadar(player, targets, particleEffect, speed, amount);
+    }
+
+    /**
+     * Creates particles floating around a player pointing at locations.
+     *
+     * @param player         The player.
+     * @param targets        The locations to point at.
+     * @param particleEffect The ParticleEffect to play.
+     * @param speed          The speed of the particle effect.
+     * @param amount         The amount of particles.
+     */
+    private static void pointRadar(Player player, Collection<Location> targets, ParticleEffect particleEffect, int speed, int amount) {
+        Location location = player.getLocation();
+        double playerX = location.getX();
+        double playerY = player.getEyeLocation().getY();
+        double playerZ = location.getZ();
+        for (Location target : targets) {
+            double x = target.getX() - playerX;
+            double z = target.getZ() - playerZ;
+            double divisor = Math.sqrt((x * x) + (z * z)) / 2;
+            if (divisor == 0) {
+                continue;
             }
+            double relativeX = x / divisor;
+            double relativeZ = z / divisor;
+            Location particleLocation = new Location(player.getWorld(), playerX + relativeX, playerY + 1, playerZ + relativeZ);
+            particleEffect.display(particleLocation, 0, 0, 0, speed, amount, player);
         }
     }
 
@@ -405,13 +459,31 @@ public final class UGUtils {
     }
 
     /**
-     * Gets the nearest player to a player from a collection of players.
+     * Gets the nearest player to a player from a collection of players.<br>
+     * When the player is in an arena, the players tracked in the arena are searched with the {@link me.ampayne2.ultimategames.players.PlayerPositionManager}
+     * and only the rest are checked one by one.
      *
      * @param targeter The player.
      * @param players  The players to get the nearest player from.
      * @return The nearest player, null if no players to choose from.
      */
     public static Player getNearestPlayer(Player targeter, Collection<Player> players) {
+        UltimateGames ultimateGames = UltimateGames.getInstance();
+        Arena arena = ultimateGames.getPlayerManager().getPlayerArena(targeter.getName());
+        if (arena != null) {
+            PlayerPositionManager positionManager = ultimateGames.getPlayerPositionManager();
+            List<Player> candidates = new ArrayList<Player>();
+            for (Player player : players) {
+                if (!positionManager.isTracked(arena, player.getName())) {
+                    candidates.add(player);
+                }
+            }
+            Player nearestTracked = positionManager.getNearestPlayer(arena, targeter, players);
+            if (nearestTracked != null) {
+                candidates.add(nearestTracked);
+            }
+            players = candidates;
+        }
         Player nearestPlayer = null;
         double distance = Double.POSITIVE_INFINITY;
 
@@ -509,6 +581,24 @@ public final class UGUtils {
         return data instanceof Attachable && attached.getRelative(((Attachable) data).getAttachedFace()).equals(block);
     }
 
+    /**
+     * Gets the block a sign is supported by.
+     *
+     * @param sign The sign block.
+     * @return The support block. Null if the block isn't a sign.
+     */
+    public static Block getSupportBlock(Block sign) {
+        if (sign.getType() == Material.SIGN_POST) {
+            return sign.getRelative(BlockFace.DOWN);
+        } else if (sign.getType() == Material.WALL_SIGN) {
+            MaterialData data = sign.getState().getData();
+            if (data instanceof Attachable) {
+                return sign.getRelative(((Attachable) data).getAttachedFace());
+            }
+        }
+        return null;
+    }
+
     /**
      * Gets all signs extending from a block.
      *